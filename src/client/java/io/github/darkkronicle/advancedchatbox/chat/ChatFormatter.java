@@ -12,6 +12,7 @@ import io.github.darkkronicle.advancedchatbox.config.ChatBoxConfigStorage;
 import io.github.darkkronicle.advancedchatbox.registry.ChatFormatterRegistry;
 import io.github.darkkronicle.advancedchatcore.util.StringInsert;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
+import io.github.darkkronicle.advancedchatcore.util.StyledString;
 import java.util.HashMap;
 import java.util.Optional;
 
@@ -27,8 +28,8 @@ public class ChatFormatter {
     /** The last content that was formatted */
     private String current = null;
 
-    /** The formatted current */
-    private Text last = null;
+    /** The formatted current, flattened so that each rendered segment is a lookup */
+    private StyledString last = null;
 
     private final TextFieldWidget widget;
     private final ChatSuggestor suggestor;
@@ -104,15 +105,11 @@ public class ChatFormatter {
         if (length == 0) {
             return OrderedText.EMPTY;
         }
-        if (last.getString().isEmpty()) {
+        if (last.isEmpty()) {
             return OrderedText.EMPTY;
         }
         int start = integer;
         int end = integer + length;
-        int fluidLength = last.getString().length();
-        if (end > fluidLength) {
-            end = fluidLength;
-        }
         return TextUtil.truncate(last, new StringMatch(s, start, end)).asOrderedText();
     }
 
@@ -123,7 +120,7 @@ public class ChatFormatter {
             return set(s, integer);
         }
         current = text;
-        last = format(text);
+        last = StyledString.of(format(text));
         return set(s, integer);
     }
 }
@@ -17,7 +17,6 @@ import org.jetbrains.annotations.Nullable;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.command.CommandSource;
-import net.minecraft.text.MutableText;
 import net.minecraft.text.Style;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
@@ -41,15 +40,17 @@ public class ColorCodeFormatter implements IMessageFormatter {
         int index = 0;
         Style last = Style.EMPTY;
         TextBuilder formatted = new TextBuilder();
+        // Flattened once so each cut is a lookup
+        StyledString styled = StyledString.of(text);
         for (StringMatch match : search.getMatches()) {
-            formatted.append(TextUtil.truncate(text, new StringMatch("", index, match.start)).fillStyle(last));
+            formatted.append(Text.empty().append(TextUtil.truncate(styled, new StringMatch("", index, match.start))).fillStyle(last));
             Formatting format = Formatting.byCode(match.match.charAt(1));
             last = last.withFormatting(format);
             index = match.start;
         }
-        MutableText small = TextUtil.truncate(text, new StringMatch("", index, string.length()));
-        if (!small.getString().isEmpty()) {
-            formatted.append(small.fillStyle(last));
+        StyledString small = TextUtil.truncate(styled, new StringMatch("", index, string.length()));
+        if (!small.isEmpty()) {
+            formatted.append(Text.empty().append(small).fillStyle(last));
         }
         return Optional.of(formatted.build());
     }
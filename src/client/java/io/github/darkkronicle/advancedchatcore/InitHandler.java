@@ -18,10 +18,14 @@ import io.github.darkkronicle.advancedchatcore.chat.*;
 import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
 import io.github.darkkronicle.advancedchatcore.config.gui.GuiConfig;
 import io.github.darkkronicle.advancedchatcore.config.gui.GuiConfigHandler;
+import io.github.darkkronicle.advancedchatcore.config.gui.GuiMemory;
+import io.github.darkkronicle.advancedchatcore.config.gui.GuiProfiler;
 import io.github.darkkronicle.advancedchatcore.config.gui.TabSupplier;
 import io.github.darkkronicle.advancedchatcore.finder.CustomFinder;
 import io.github.darkkronicle.advancedchatcore.finder.custom.ProfanityFinder;
 import io.github.darkkronicle.advancedchatcore.hotkeys.InputHandler;
+import io.github.darkkronicle.advancedchatcore.interfaces.IMessageFilter;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import io.github.darkkronicle.advancedchatcore.util.ProfanityUtil;
 import io.github.darkkronicle.advancedchatcore.util.StringInsert;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
@@ -58,12 +62,31 @@ public class InitHandler implements IInitializationHandler {
                         "chatscreen",
                         "advancedchatcore.tab.chatscreen",
                         ConfigStorage.ChatScreen.OPTIONS.stream().map((saveableConfig) -> (IConfigBase) saveableConfig.config).toList()
+                ),
+                GuiConfigHandler.wrapScreen(
+                        "core_profiler",
+                        "advancedchatcore.tab.profiler",
+                        parent -> new GuiProfiler()
+                ),
+                GuiConfigHandler.wrapScreen(
+                        "core_memory",
+                        "advancedchatcore.tab.memory",
+                        parent -> new GuiMemory()
                 ))
         );
 
         ProfanityUtil.getInstance().loadConfigs();
-        MessageDispatcher.getInstance().registerPreFilter(text -> {
-            if (ConfigStorage.General.FILTER_PROFANITY.config.getBooleanValue()) {
+        MessageDispatcher.getInstance().registerPreFilter(new IMessageFilter() {
+            @Override
+            public Optional<Text> filter(Text text) {
+                return filter(FlatText.of(text)).map(FlatText::getText);
+            }
+
+            @Override
+            public Optional<FlatText> filter(FlatText text) {
+                if (!ConfigStorage.General.FILTER_PROFANITY.config.getBooleanValue()) {
+                    return Optional.empty();
+                }
                 List<StringMatch> profanity =
                         ProfanityUtil.getInstance().getBadWords(text.getString(), (float) ConfigStorage.General.PROFANITY_ABOVE.config.getDoubleValue(), ConfigStorage.General.PROFANITY_ON_WORD_BOUNDARIES.config.getBooleanValue());
                 if (profanity.isEmpty()) {
@@ -76,10 +99,13 @@ public class InitHandler implements IInitializationHandler {
                             Text.literal("*".repeat(bad.end - bad.start)).fillStyle(current.getStyle())
                     );
                 }
-                text = TextUtil.replaceStrings(text, insertions);
-                return Optional.of(text);
+                return Optional.of(FlatText.of(TextUtil.replaceStrings(text.getText(), insertions)));
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
             }
-            return Optional.empty();
         }, -1);
 
         // This constructs the default chat suggester
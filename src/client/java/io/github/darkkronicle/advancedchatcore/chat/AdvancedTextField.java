@@ -11,8 +11,8 @@ import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import fi.dy.masa.malilib.util.KeyCodes;
 import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
-import io.github.darkkronicle.advancedchatcore.util.StringMatch;
 import io.github.darkkronicle.advancedchatcore.util.StyleFormatter;
+import io.github.darkkronicle.advancedchatcore.util.StyledString;
 import io.github.darkkronicle.advancedchatcore.util.TextBuilder;
 import io.github.darkkronicle.advancedchatcore.util.TextUtil;
 import net.minecraft.client.font.TextRenderer;
@@ -45,7 +45,8 @@ public class AdvancedTextField extends TextFieldWidget {
     private final List<String> history = new ArrayList<>();
 
     private int focusedTicks = 0;
-    private List<Text> renderLines = new ArrayList<>();
+    /** Wrapped lines, flattened so that selection widths don't walk the text every frame */
+    private List<StyledString> renderLines = new ArrayList<>();
     private final TextRenderer textRenderer;
     private String suggestion = null;
     private int selectionEnd;
@@ -176,28 +177,29 @@ public class AdvancedTextField extends TextFieldWidget {
         int y = getY()    ;
         context.fill(getX() - 2, renderY - 2, getX() + width + 4, getY() + height + 4, ConfigStorage.ChatScreen.COLOR.config.get().color());
         for (int line = 0; line < renderLines.size(); line++) {
-            Text text = renderLines.get(line);
-            if (cursor >= charCount && cursor < text.getString().length() + charCount) {
-                cursorX = textRenderer.getWidth(text.getString().substring(0, cursor - charCount));
+            StyledString text = renderLines.get(line);
+            int length = text.length();
+            if (cursor >= charCount && cursor < length + charCount) {
+                cursorX = textRenderer.getWidth(text.substring(0, cursor - charCount));
                 cursorRow = line;
             }
             endX = context.drawTextWithShadow(textRenderer, text, x, renderY, color);
             if (selection) {
-                if (!started && selStart >= charCount && selStart <= text.getString().length() + charCount) {
+                if (!started && selStart >= charCount && selStart <= length + charCount) {
                     started = true;
-                    int startX = textRenderer.getWidth(TextUtil.truncate(text, new StringMatch("", 0, selStart - charCount)));
-                    if (selEnd > charCount && selEnd <= text.getString().length() + charCount) {
+                    int startX = textRenderer.getWidth(text.substring(0, selStart - charCount));
+                    if (selEnd > charCount && selEnd <= length + charCount) {
                         ended = true;
-                        int sEndX = textRenderer.getWidth(TextUtil.truncate(text, new StringMatch("", 0, selEnd - charCount)));
+                        int sEndX = textRenderer.getWidth(text.substring(0, selEnd - charCount));
                         drawSelectionHighlight(x + startX, renderY - 1, x + sEndX, renderY + textRenderer.fontHeight);
                     } else {
                         int sEndX = textRenderer.getWidth(text);
                         drawSelectionHighlight(x + startX, renderY - 1, x + sEndX, renderY + textRenderer.fontHeight);
                     }
                 } else if (started && !ended) {
-                    if (selEnd >= charCount && selEnd <= text.getString().length() + charCount) {
+                    if (selEnd >= charCount && selEnd <= length + charCount) {
                         ended = true;
-                        int sEndX = textRenderer.getWidth(TextUtil.truncate(text, new StringMatch("", 0, selEnd - charCount)));
+                        int sEndX = textRenderer.getWidth(text.substring(0, selEnd - charCount));
                         drawSelectionHighlight(x, renderY - 1, x + sEndX, renderY + textRenderer.fontHeight);
                     } else {
                         int sEndX = textRenderer.getWidth(text);
@@ -206,7 +208,7 @@ public class AdvancedTextField extends TextFieldWidget {
                 }
             }
             renderY += textRenderer.fontHeight + 2;
-            charCount += text.getString().length();
+            charCount += length;
         }
         if (cursorX < 0) {
             cursorX = endX;
@@ -300,7 +302,11 @@ public class AdvancedTextField extends TextFieldWidget {
 
     private void updateRender() {
         OrderedText formatted = renderTextProvider.apply(getText(), 0);
-        renderLines = StyleFormatter.wrapText(textRenderer, getWidth(), new TextBuilder().append(formatted).build());
+        List<StyledString> lines = new ArrayList<>();
+        for (Text line : StyleFormatter.wrapText(textRenderer, getWidth(), new TextBuilder().append(formatted).buildStyled())) {
+            lines.add(StyledString.of(line));
+        }
+        renderLines = lines;
     }
 
     private void updateHistory() {
@@ -11,9 +11,9 @@ import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
 import io.github.darkkronicle.advancedchatcore.interfaces.IChatMessageProcessor;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 
@@ -24,11 +24,16 @@ public class ChatHistory {
 
     private static final ChatHistory INSTANCE = new ChatHistory();
 
-    /** Stored lines */
-    private final List<ChatMessage> messages = new ArrayList<>();
+    /** Newest messages that are kept unpacked, older ones get compacted once nothing else shows them */
+    private static final int HOT_MESSAGES = 500;
 
-    /** Maximum lines for storage */
-    @Setter private int maxLines = 500;
+    /** Stored lines, newest first. Indexed by {@link ChatMessage#getId()}. */
+    private final MessageStore.View<ChatMessage> messages =
+            MessageStore.getInstance().createView("history", 500, Function.identity(), ChatMessage::getId);
+
+    /** Newest messages that can be stacked onto */
+    @Getter(AccessLevel.NONE)
+    private final StackIndex stackIndex = new StackIndex();
 
     /** Runnables to run when chat history is cleared */
     private final List<Runnable> onClear = new ArrayList<>();
@@ -40,7 +45,29 @@ public class ChatHistory {
         return INSTANCE;
     }
 
-    private ChatHistory() {}
+    private ChatHistory() {
+        messages.setHotLimit(HOT_MESSAGES);
+    }
+
+    /** Maximum lines for storage */
+    public int getMaxLines() {
+        return messages.getLimit();
+    }
+
+    /**
+     * Sets the maximum lines for storage. Lines over the limit are removed, oldest first.
+     *
+     * @param maxLines Maximum lines
+     */
+    public void setMaxLines(int maxLines) {
+        List<ChatMessage> removed = messages.setLimit(maxLines);
+        if (!removed.isEmpty()) {
+            stackIndex.rebuild(stackIndex.getSize(), messages);
+        }
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            sendUpdate(removed.get(i), IChatMessageProcessor.UpdateType.REMOVE);
+        }
+    }
 
     /**
      * Adds a runnable that will trigger when all chat messages should be cleared.
@@ -64,6 +91,7 @@ public class ChatHistory {
     /** Goes through and clears all message data from everywhere. */
     public void clearAll() {
         this.messages.clear();
+        this.stackIndex.clear();
         for (Runnable r : onClear) {
             r.run();
         }
@@ -72,6 +100,7 @@ public class ChatHistory {
     /** Clears all the chat messages from the history */
     public void clear() {
         messages.clear();
+        stackIndex.clear();
     }
 
     private void sendUpdate(ChatMessage message, IChatMessageProcessor.UpdateType type) {
@@ -87,24 +116,36 @@ public class ChatHistory {
      */
     public boolean add(ChatMessage message) {
         sendUpdate(message, IChatMessageProcessor.UpdateType.NEW);
-        for (int i = 0;
-                i < ConfigStorage.General.CHAT_STACK.config.getIntegerValue()
-                        && i < messages.size();
-                i++) {
-            // Check for stacks
-            ChatMessage chatLine = messages.get(i);
-            if (message.isSimilar(chatLine)) {
-                chatLine.setStacks(chatLine.getStacks() + 1);
-                sendUpdate(chatLine, IChatMessageProcessor.UpdateType.STACK);
-                return false;
-            }
+        int stack = ConfigStorage.General.CHAT_STACK.config.getIntegerValue();
+        if (stack != stackIndex.getSize()) {
+            stackIndex.rebuild(stack, messages);
+        }
+        stackIndex.setSimilarity(ConfigStorage.General.CHAT_STACK_SIMILARITY.config.getDoubleValue());
+        // Check for stacks
+        ChatMessage chatLine = stackIndex.find(message);
+        if (chatLine != null) {
+            chatLine.setStacks(chatLine.getStacks() + 1);
+            sendUpdate(chatLine, IChatMessageProcessor.UpdateType.STACK);
+            return false;
         }
         sendUpdate(message, IChatMessageProcessor.UpdateType.ADDED);
-        messages.addFirst(message);
-        while (this.messages.size() > maxLines) {
-            sendUpdate(
-                    this.messages.removeLast(),
-                    IChatMessageProcessor.UpdateType.REMOVE);
+        long budget = ConfigStorage.General.HISTORY_MEMORY.config.getIntegerValue() * 1024L;
+        List<ChatMessage> evicted = new ArrayList<>();
+        if (budget != messages.getByteBudget()) {
+            evicted.addAll(messages.setByteBudget(budget));
+        }
+        evicted.addAll(0, messages.push(message));
+        stackIndex.add(message);
+        boolean rebuild = false;
+        for (ChatMessage m : evicted) {
+            // Only in the window if the window is larger than the history
+            rebuild |= stackIndex.remove(m);
+        }
+        if (rebuild) {
+            stackIndex.rebuild(stackIndex.getSize(), messages);
+        }
+        for (int i = evicted.size() - 1; i >= 0; i--) {
+            sendUpdate(evicted.get(i), IChatMessageProcessor.UpdateType.REMOVE);
         }
         return true;
     }
@@ -115,12 +156,16 @@ public class ChatHistory {
      * @param messageId Message ID to find and remove
      */
     public void removeMessage(int messageId) {
-        List<ChatMessage> toRemove =
-                this.messages.stream()
-                        .filter(line -> line.getId() == messageId)
-                        .toList();
-        this.messages.removeAll(toRemove);
-        for (ChatMessage m : toRemove) {
+        List<ChatMessage> removed = messages.removeAll(messageId);
+        boolean rebuild = false;
+        for (ChatMessage m : removed) {
+            rebuild |= stackIndex.remove(m);
+        }
+        if (rebuild) {
+            // Older messages move into the window
+            stackIndex.rebuild(stackIndex.getSize(), messages);
+        }
+        for (ChatMessage m : removed) {
             sendUpdate(m, IChatMessageProcessor.UpdateType.REMOVE);
         }
     }
@@ -12,7 +12,9 @@ import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
 import io.github.darkkronicle.advancedchatcore.interfaces.IMessageProcessor;
 import io.github.darkkronicle.advancedchatcore.mixin.MixinChatHudInvoker;
 import io.github.darkkronicle.advancedchatcore.util.Color;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import io.github.darkkronicle.advancedchatcore.util.SearchUtils;
+import io.github.darkkronicle.advancedchatcore.util.StylePool;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import net.fabricmc.api.EnvType;
@@ -40,17 +42,27 @@ public class ChatHistoryProcessor implements IMessageProcessor {
         return process(text, unfiltered, null, MessageIndicator.system());
     }
 
+    @Override
+    public boolean process(FlatText text, @Nullable FlatText unfiltered) {
+        // Author lookup can use the string that was already flattened
+        String search = unfiltered == null ? text.getString() : unfiltered.getString();
+        return add(text.getText(), search, null, MessageIndicator.system());
+    }
+
     @Override
     public boolean process(Text text, @Nullable Text unfiltered, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
         if (unfiltered == null) {
             unfiltered = text;
         }
+        return add(text, unfiltered.getString(), signature, indicator);
+    }
 
+    private boolean add(Text text, String unfiltered, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
         // Put the time in
         LocalTime time = LocalTime.now();
         boolean showtime = ConfigStorage.General.SHOW_TIME.config.getBooleanValue();
         // Store original so we can get stuff without the time
-        Text original = text.copy();
+        Text original = text;
         if (showtime) {
             DateTimeFormatter format =
                     DateTimeFormatter.ofPattern(
@@ -58,17 +70,18 @@ public class ChatHistoryProcessor implements IMessageProcessor {
             String replaceFormat =
                     ConfigStorage.General.TIME_TEXT_FORMAT.config.getStringValue().replaceAll("&", "§");
             Color color = ConfigStorage.General.TIME_COLOR.config.get();
-            Style style = Style.EMPTY;
-            TextColor textColor = TextColor.fromRgb(color.color());
-            style = style.withColor(textColor);
-            text.getSiblings().addFirst(Text.literal(replaceFormat.replaceAll("%TIME%", time.format(format))).fillStyle(style));
+            Style style = StylePool.intern(Style.EMPTY.withColor(TextColor.fromRgb(color.color())));
+            // Wrap instead of adding to the siblings, the text may be shared or immutable
+            text = Text.empty()
+                    .append(Text.literal(replaceFormat.replaceAll("%TIME%", time.format(format))).setStyle(style))
+                    .append(text);
         }
 
         int width = 0;
         // Find player
         MessageOwner player =
                 SearchUtils.getAuthor(
-                        MinecraftClient.getInstance().getNetworkHandler(), unfiltered.getString());
+                        MinecraftClient.getInstance().getNetworkHandler(), unfiltered);
         ChatMessage line = ChatMessage.builder()
                 .displayText(text)
                 .originalText(original)
@@ -8,16 +8,29 @@
 package io.github.darkkronicle.advancedchatcore.chat;
 
 import io.github.darkkronicle.advancedchatcore.util.Color;
+import io.github.darkkronicle.advancedchatcore.util.CompactText;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
+import io.github.darkkronicle.advancedchatcore.util.MemoryEstimate;
 import io.github.darkkronicle.advancedchatcore.util.StyleFormatter;
+import io.github.darkkronicle.advancedchatcore.util.StyledString;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.hud.MessageIndicator;
 import net.minecraft.network.message.MessageSignatureData;
 import net.minecraft.text.Text;
@@ -49,20 +62,309 @@ public class ChatMessage {
     /** The amount of times the message has been stacked. */
     protected int stacks;
 
-    /** Unique ID of the message. */
-    protected UUID uuid;
+    /** Source of {@link #sequence}. Starts at 1 so that 0 can mean no message. */
+    private static final AtomicLong NEXT_SEQUENCE = new AtomicLong(1);
+
+    /** Unique ID of this message object. Clones get a new one. */
+    @Setter(AccessLevel.NONE)
+    protected long sequence;
+
+    /**
+     * ID of the message that this was cloned from, or {@link #sequence} if it isn't a clone. Stays
+     * the same across clones so they can be matched with the original.
+     */
+    @Setter(AccessLevel.NONE)
+    protected long originId;
 
     /** The owner of the message. */
     @Nullable protected MessageOwner owner;
 
-    /** Split up lines for line breaks. */
+    /** Split up lines for line breaks. Created when first needed. */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
     protected List<AdvancedChatLine> lines;
 
+    /** The width that line breaks are enforced at. 0 means no line breaks. */
+    @Setter(AccessLevel.NONE)
+    protected int wrapWidth;
+
+    /** Wrapped {@link #displayText} by width, shared with clones that display the same text */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected WrapCache wrapCache;
+
+    /**
+     * Lines at widths other than {@link #wrapWidth}, for when one message is shown at a few widths
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected Map<Integer, List<AdvancedChatLine>> linesByWidth;
+
+    /** Cached result of {@link #getEstimatedBytes()}, -1 if it has to be calculated */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected long estimatedBytes = -1;
+
     @Nullable
     protected MessageSignatureData signature;
 
     protected MessageIndicator indicator;
 
+    /** Flattened {@link #originalText}, created when first needed */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected FlatText originalFlat;
+
+    /**
+     * Packed texts once the message has been compacted by {@link #compact()}, otherwise null. While
+     * set, {@link #displayText} and {@link #originalText} are null.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    protected Cold cold;
+
+    /** Compacted messages that were unpacked recently, by {@link #sequence} */
+    private static final Map<Long, Inflated> INFLATED =
+            new LinkedHashMap<>(128, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Inflated> eldest) {
+                    return size() > Inflated.MAX_INFLATED;
+                }
+            };
+
+    /** The packed texts of a compacted message */
+    private static class Cold {
+
+        private final CompactText display;
+
+        /** Null if the original text is the display text */
+        @Nullable private final CompactText original;
+
+        /** Line count at {@link #lineWidth}, so that lines can be counted without unpacking */
+        private int lineCount;
+
+        private int lineWidth = -1;
+
+        private Cold(CompactText display, @Nullable CompactText original) {
+            this.display = display;
+            this.original = original;
+        }
+    }
+
+    /** A compacted message that has been unpacked, along with whatever has been built from it */
+    private static class Inflated {
+
+        /** Enough for a couple screens of the chat log */
+        private static final int MAX_INFLATED = 64;
+
+        private final Text display;
+
+        private final Text original;
+
+        private final WrapCache wrapCache;
+
+        private final Map<Integer, List<AdvancedChatLine>> lines = WrapCache.byWidth();
+
+        private FlatText originalFlat;
+
+        private Inflated(Cold cold) {
+            this.display = cold.display.toStyledString();
+            this.original = cold.original == null ? display : cold.original.toStyledString();
+            this.wrapCache = new WrapCache(display);
+        }
+    }
+
+    /**
+     * Get's the text that will be displayed on render. Compacted messages are unpacked.
+     *
+     * @return Display text
+     */
+    public Text getDisplayText() {
+        Cold packed = cold;
+        return packed == null ? displayText : inflated(packed).display;
+    }
+
+    /**
+     * Get's the unmodified original text. Compacted messages are unpacked.
+     *
+     * @return Original text
+     */
+    public Text getOriginalText() {
+        Cold packed = cold;
+        return packed == null ? originalText : inflated(packed).original;
+    }
+
+    /**
+     * Get's the plain string of the display text. Compacted messages don't have their styles
+     * rebuilt, so this is cheaper than {@link #getDisplayText()} for searching.
+     *
+     * @return Display string
+     */
+    public String getDisplayString() {
+        Cold packed = cold;
+        if (packed == null) {
+            return displayText.getString();
+        }
+        synchronized (INFLATED) {
+            Inflated inflated = INFLATED.get(sequence);
+            if (inflated != null) {
+                return inflated.display.getString();
+            }
+        }
+        return packed.display.getString();
+    }
+
+    private Inflated inflated(Cold packed) {
+        synchronized (INFLATED) {
+            Inflated inflated = INFLATED.get(sequence);
+            if (inflated == null) {
+                inflated = new Inflated(packed);
+                INFLATED.put(sequence, inflated);
+            }
+            return inflated;
+        }
+    }
+
+    /** If the texts are packed by {@link #compact()} */
+    public boolean isCompacted() {
+        return cold != null;
+    }
+
+    /**
+     * Packs the display and original text and drops the wrapped lines, for messages that are kept
+     * but rarely shown. The getters still work, the text is unpacked when it's needed and the last
+     * few unpacked messages are cached. Setting either text unpacks the message for good.
+     *
+     * <p>{@link #getEstimatedBytes()} doesn't change, {@link #getRetainedBytes()} does.
+     */
+    public void compact() {
+        if (cold != null || displayText == null) {
+            return;
+        }
+        // Keep the estimate of the full message so running totals stay the same
+        getEstimatedBytes();
+        CompactText display = CompactText.of(displayText);
+        CompactText original = originalText == displayText ? null : CompactText.of(originalText);
+        cold = new Cold(display, original);
+        displayText = null;
+        originalText = null;
+        lines = null;
+        linesByWidth = null;
+        wrapCache = null;
+        originalFlat = null;
+    }
+
+    /**
+     * Replaces the display and original text trees with {@link StyledString}s, which take a lot
+     * less memory and render the same. Done once a message is stored, after the filters are done
+     * building its text.
+     */
+    public void flatten() {
+        if (cold != null || displayText == null) {
+            return;
+        }
+        if (displayText instanceof StyledString && originalText instanceof StyledString) {
+            return;
+        }
+        StyledString display = StyledString.of(displayText);
+        StyledString original = originalText == displayText ? display : StyledString.of(originalText);
+        setDisplayText(display);
+        setOriginalText(original);
+    }
+
+    /** Unpacks a compacted message for good */
+    private void expand() {
+        Cold packed = cold;
+        if (packed == null) {
+            return;
+        }
+        Inflated inflated = inflated(packed);
+        displayText = inflated.display;
+        originalText = inflated.original;
+        wrapCache = inflated.wrapCache;
+        originalFlat = inflated.originalFlat;
+        cold = null;
+        synchronized (INFLATED) {
+            INFLATED.remove(sequence);
+        }
+    }
+
+    /**
+     * Set's the unmodified text of the message
+     *
+     * @param originalText Text to set to
+     */
+    public void setOriginalText(Text originalText) {
+        expand();
+        this.originalText = originalText;
+        this.originalFlat = null;
+        this.estimatedBytes = -1;
+    }
+
+    /**
+     * Get's the flattened form of {@link #originalText}. It is only built once and shared with
+     * clones.
+     *
+     * @return Flattened original text
+     */
+    public FlatText getOriginalFlat() {
+        Cold packed = cold;
+        if (packed != null) {
+            Inflated inflated = inflated(packed);
+            if (inflated.originalFlat == null) {
+                inflated.originalFlat = FlatText.of(inflated.original);
+            }
+            return inflated.originalFlat;
+        }
+        FlatText flat = originalFlat;
+        if (flat == null || flat.getText() != originalText) {
+            flat = FlatText.of(originalText);
+            originalFlat = flat;
+        }
+        return flat;
+    }
+
+    /**
+     * Get's the hash of the content of {@link #originalText}. Messages that are similar have the
+     * same hash.
+     *
+     * @return Hash of the flattened original text
+     */
+    public int getContentHash() {
+        return getOriginalFlat().getContentHash();
+    }
+
+    /**
+     * Get's a unique ID of this message object
+     *
+     * @return UUID built from {@link #sequence}
+     * @deprecated Use {@link #getSequence()}, or {@link #isSameOrigin(ChatMessage)} to find clones
+     */
+    @Deprecated
+    public UUID getUuid() {
+        return new UUID(0, sequence);
+    }
+
+    /**
+     * Checks if two messages are the same message or clones of the same message
+     *
+     * @param message Message to compare to
+     * @return If they share an origin
+     */
+    public boolean isSameOrigin(ChatMessage message) {
+        return originId == message.originId;
+    }
+
     /**
      * Set's the display text of the message and formats the line breaks.
      *
@@ -70,10 +372,55 @@ public class ChatMessage {
      * @param width The width that a line break should be enforced
      */
     public void setDisplayText(Text text, int width) {
-        this.displayText = text;
+        setDisplayText(text);
         formatChildren(width);
     }
 
+    /**
+     * Set's the display text of the message. The line breaks are kept at the same width.
+     *
+     * @param text Text to set to
+     */
+    public void setDisplayText(Text text) {
+        expand();
+        this.displayText = text;
+        this.lines = null;
+        this.linesByWidth = null;
+        this.estimatedBytes = -1;
+    }
+
+    /**
+     * Estimates how many bytes this message keeps alive: the display and original text trees with
+     * their styles and hover text, plus one wrapped copy of the display text. It only changes when
+     * the text is set, so that holders can keep a running total.
+     *
+     * @return Estimated bytes
+     */
+    public long getEstimatedBytes() {
+        if (estimatedBytes < 0) {
+            long display = MemoryEstimate.of(displayText);
+            long original = originalText == displayText ? 0 : MemoryEstimate.of(originalText);
+            // The message itself and its fields, then the wrapped lines
+            estimatedBytes = 128 + display + original + display;
+        }
+        return estimatedBytes;
+    }
+
+    /**
+     * Estimates how many bytes this message keeps alive right now. This is less than {@link
+     * #getEstimatedBytes()} once the message is compacted.
+     *
+     * @return Estimated bytes
+     */
+    public long getRetainedBytes() {
+        Cold packed = cold;
+        if (packed == null) {
+            return getEstimatedBytes();
+        }
+        long bytes = 128 + packed.display.getEstimatedBytes();
+        return packed.original == null ? bytes : bytes + packed.original.getEstimatedBytes();
+    }
+
     /**
      * Clones the object
      *
@@ -84,8 +431,8 @@ public class ChatMessage {
         ChatMessage message =
                 new ChatMessage(
                         creationTick,
-                        displayText,
-                        originalText,
+                        getDisplayText(),
+                        getOriginalText(),
                         id,
                         time,
                         backgroundColor,
@@ -94,9 +441,60 @@ public class ChatMessage {
                         signature,
                         indicator);
         message.setStacks(getStacks());
+        message.originId = originId;
+        if (cold == null) {
+            message.originalFlat = originalFlat;
+            message.wrapCache = getWrapCache();
+        }
         return message;
     }
 
+    /**
+     * Lines of {@link #displayText} wrapped at one width, without a parent so that they can be
+     * shared.
+     */
+    private record WrappedText(Text[] lines, int[] widths) {}
+
+    /** Wrapped lines of one display text for the last few widths it was rendered at */
+    private static class WrapCache {
+
+        /** Different widths are rare (log, hud windows), except while a window is resized */
+        private static final int MAX_WIDTHS = 4;
+
+        private final Text text;
+
+        private final Map<Integer, WrappedText> byWidth = byWidth();
+
+        /** A map that only keeps the last few widths that were used */
+        private static <T> Map<Integer, T> byWidth() {
+            return new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                    return size() > MAX_WIDTHS;
+                }
+            };
+        }
+
+        private WrapCache(Text text) {
+            this.text = text;
+        }
+
+        private WrappedText get(int width) {
+            return byWidth.computeIfAbsent(width, this::wrap);
+        }
+
+        private WrappedText wrap(int width) {
+            TextRenderer renderer = MinecraftClient.getInstance().textRenderer;
+            List<Text> wrapped = width == 0 ? List.of(text) : StyleFormatter.wrapText(renderer, width, text);
+            Text[] lines = wrapped.toArray(new Text[0]);
+            int[] widths = new int[lines.length];
+            for (int i = 0; i < lines.length; i++) {
+                widths[i] = renderer.getWidth(lines[i]);
+            }
+            return new WrappedText(lines, widths);
+        }
+    }
+
     /** A sub section of {@link ChatMessage} which contains a renderable line. */
     @Data
     public static class AdvancedChatLine {
@@ -107,10 +505,10 @@ public class ChatMessage {
         private final ChatMessage parent;
         private int width;
 
-        private AdvancedChatLine(ChatMessage parent, Text text) {
+        private AdvancedChatLine(ChatMessage parent, Text text, int width) {
             this.parent = parent;
             this.text = text;
-            this.width = MinecraftClient.getInstance().textRenderer.getWidth(text);
+            this.width = width;
         }
 
         @Override
@@ -137,30 +535,94 @@ public class ChatMessage {
         this.time = time;
         this.backgroundColor = backgroundColor;
         this.stacks = 0;
-        this.uuid = UUID.randomUUID();
+        this.sequence = NEXT_SEQUENCE.getAndIncrement();
+        this.originId = sequence;
         this.owner = owner;
         this.originalText = originalText == null ? displayText : originalText;
         this.signature = signature;
         this.indicator = indicator == null ? MessageIndicator.system() : indicator;
-        formatChildren(width);
+        this.wrapWidth = width;
     }
 
     /**
-     * Reformats the line breaks
+     * Reformats the line breaks. The text is only wrapped once it is needed, and wrapping is shared
+     * with clones displaying the same text at the same width.
      *
      * @param width Width that the line breaks should be enforced
      */
     public void formatChildren(int width) {
-        this.lines = new ArrayList<>();
-        if (width == 0) {
-            this.lines.add(new AdvancedChatLine(this, displayText));
-        } else {
-            for (Text t :
-                    StyleFormatter.wrapText(
-                            MinecraftClient.getInstance().textRenderer, width, displayText)) {
-                this.lines.add(new AdvancedChatLine(this, t));
-            }
+        if (width != this.wrapWidth) {
+            this.lines = null;
+        }
+        this.wrapWidth = width;
+    }
+
+    private WrapCache getWrapCache() {
+        if (wrapCache == null || wrapCache.text != displayText) {
+            wrapCache = new WrapCache(displayText);
+        }
+        return wrapCache;
+    }
+
+    /**
+     * Get's the lines of the display text, wrapping it if it hasn't been yet
+     *
+     * @return Lines that get rendered
+     */
+    public List<AdvancedChatLine> getLines() {
+        Cold packed = cold;
+        if (packed != null) {
+            return getColdLines(packed, wrapWidth);
+        }
+        if (lines == null) {
+            lines = createLines(wrapWidth);
+        }
+        return lines;
+    }
+
+    /**
+     * Get's the lines of the display text wrapped at a width, without changing the width set by
+     * {@link #formatChildren(int)}. This lets one message be shown at different widths.
+     *
+     * @param width Width that the line breaks should be enforced
+     * @return Lines that get rendered
+     */
+    public List<AdvancedChatLine> getLines(int width) {
+        if (width == wrapWidth) {
+            return getLines();
+        }
+        Cold packed = cold;
+        if (packed != null) {
+            return getColdLines(packed, width);
+        }
+        if (linesByWidth == null) {
+            linesByWidth = WrapCache.byWidth();
+        }
+        return linesByWidth.computeIfAbsent(width, this::createLines);
+    }
+
+    private List<AdvancedChatLine> getColdLines(Cold packed, int width) {
+        List<AdvancedChatLine> created;
+        synchronized (INFLATED) {
+            Inflated inflated = inflated(packed);
+            created = inflated.lines.computeIfAbsent(width, w -> createLines(inflated.wrapCache, w));
+        }
+        packed.lineWidth = width;
+        packed.lineCount = created.size();
+        return created;
+    }
+
+    private List<AdvancedChatLine> createLines(int width) {
+        return createLines(getWrapCache(), width);
+    }
+
+    private List<AdvancedChatLine> createLines(WrapCache cache, int width) {
+        WrappedText wrapped = cache.get(width);
+        List<AdvancedChatLine> created = new ArrayList<>(wrapped.lines().length);
+        for (int i = 0; i < wrapped.lines().length; i++) {
+            created.add(new AdvancedChatLine(this, wrapped.lines()[i], wrapped.widths()[i]));
         }
+        return created;
     }
 
     /**
@@ -170,7 +632,7 @@ public class ChatMessage {
      * @return If it's similar
      */
     public boolean isSimilar(ChatMessage message) {
-        return message.getOriginalText().getString().equals(this.getOriginalText().getString());
+        return message.getOriginalFlat().contentEquals(this.getOriginalFlat());
     }
 
     /**
@@ -179,6 +641,20 @@ public class ChatMessage {
      * @return Line count
      */
     public int getLineCount() {
-        return this.lines.size();
+        return getLineCount(wrapWidth);
+    }
+
+    /**
+     * Gets the total amount of lines when wrapped at a width
+     *
+     * @param width Width that the line breaks are enforced
+     * @return Line count
+     */
+    public int getLineCount(int width) {
+        Cold packed = cold;
+        if (packed != null && packed.lineWidth == width) {
+            return packed.lineCount;
+        }
+        return getLines(width).size();
     }
 }
@@ -7,19 +7,29 @@
  */
 package io.github.darkkronicle.advancedchatcore.chat;
 
+import io.github.darkkronicle.advancedchatcore.AdvancedChatCore;
+import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.interfaces.IMessageFilter;
 import io.github.darkkronicle.advancedchatcore.interfaces.IMessageProcessor;
 import io.github.darkkronicle.advancedchatcore.util.FindType;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
+import io.github.darkkronicle.advancedchatcore.util.PipelineProfiler;
 import io.github.darkkronicle.advancedchatcore.util.SearchResult;
-import io.github.darkkronicle.advancedchatcore.util.SearchUtils;
 import io.github.darkkronicle.advancedchatcore.util.StringInsert;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
 import io.github.darkkronicle.advancedchatcore.util.StyleFormatter;
+import io.github.darkkronicle.advancedchatcore.util.StyledString;
+import io.github.darkkronicle.advancedchatcore.util.SyncTaskQueue;
 import io.github.darkkronicle.advancedchatcore.util.TextUtil;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.gui.hud.MessageIndicator;
@@ -39,8 +49,32 @@ import org.jetbrains.annotations.Nullable;
 public class MessageDispatcher {
 
     private static final MessageDispatcher INSTANCE = new MessageDispatcher();
-    private final ArrayList<IMessageProcessor> processors = new ArrayList<>();
-    private final ArrayList<IMessageFilter> preFilters = new ArrayList<>();
+
+    /** Finds anything that looks like a link */
+    private final CompiledMatcher urlMatcher =
+            FindType.REGEX
+                    .getFinder()
+                    .compile(
+                            "(http(s)?:\\/\\/.)?(www\\.)?[-a-zA-Z0-9@:%._\\+~#=]{2,256}\\.[a-z]{2,6}\\b([-a-zA-Z0-9@:%_\\+.~#?&\\/=]*)");
+
+    /** Checks if a link already has a protocol */
+    private final CompiledMatcher protocolMatcher =
+            FindType.REGEX.getFinder().compile("(http(s)?:\\/\\/.)");
+
+    private final List<IMessageProcessor> processors = new CopyOnWriteArrayList<>();
+    private final List<IMessageFilter> preFilters = new CopyOnWriteArrayList<>();
+
+    /** Runs thread safe pre-filters when {@link ConfigStorage.General#ASYNC_PROCESSING} is on */
+    private final ExecutorService worker =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "AdvancedChat Message Worker");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    /** Messages handed to the worker that haven't been published yet */
+    private final AtomicInteger pending = new AtomicInteger();
 
     public static MessageDispatcher getInstance() {
         return INSTANCE;
@@ -49,54 +83,80 @@ public class MessageDispatcher {
     private MessageDispatcher() {
         // We don't really want this to be reconstructed or changed because it will lead to problems
         // of not having everything registered
-        registerPreFilter(text -> Optional.of(StyleFormatter.formatText(text)), -1);
+        registerPreFilter(IMessageFilter.threadSafe(text -> {
+            PipelineProfiler.getInstance().count("format", "messages");
+            Text formatted = StyleFormatter.format(text);
+            // Never pass on the text that was sent in, it could be shared by whoever sent it. A
+            // styled string can't be modified, so one that came in can be kept.
+            return Optional.of(formatted == text ? StyledString.of(text) : formatted);
+        }), -1);
 
+        registerPreFilter(new LinkFilter(), -1);
         registerPreFilter(
-                text -> {
-                    String string = text.getString();
-                    if (string.isEmpty()) {
-                        return Optional.empty();
+                new IMessageProcessor() {
+                    @Override
+                    public boolean process(Text text, @Nullable Text unfiltered) {
+                        return process(FlatText.of(text), null);
                     }
-                    SearchResult search =
-                            SearchResult.searchOf(
-                                    string,
-                                    "(http(s)?:\\/\\/.)?(www\\.)?[-a-zA-Z0-9@:%._\\+~#=]{2,256}\\.[a-z]{2,6}\\b([-a-zA-Z0-9@:%_\\+.~#?&\\/=]*)",
-                                    FindType.REGEX);
-                    if (search.size() == 0) {
-                        return Optional.empty();
+
+                    @Override
+                    public boolean process(FlatText text, @Nullable FlatText unfiltered) {
+                        LogManager.getLogger()
+                                .info(
+                                        "[CHAT] {}",
+                                        text.getString()
+                                                .replaceAll("\r", "\\\\r")
+                                                .replaceAll("\n", "\\\\n"));
+                        return true;
                     }
-                    Map<StringMatch, StringInsert> insert = new HashMap<>();
-                    for (StringMatch match : search.getMatches()) {
-                        insert.put(
-                                match,
-                                (current, match1) -> {
-                                    String url = match1.match;
-                                    if (!SearchUtils.isMatch(
-                                            match1.match, "(http(s)?:\\/\\/.)", FindType.REGEX)) {
-                                        url = "https://" + url;
-                                    }
-                                    if (current.getStyle().getClickEvent() == null) {
-                                        return Text.literal(match1.match).fillStyle(current.getStyle().withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, url)));
-                                    }
-                                    return MutableText.of(current.getContent()).fillStyle(current.getStyle());
-                                });
+
+                    @Override
+                    public boolean isThreadSafe() {
+                        return true;
                     }
-                    text = TextUtil.replaceStrings(text, insert);
-                    return Optional.of(text);
                 },
                 -1);
-        registerPreFilter(
-                (IMessageProcessor)
-                        (text, orig) -> {
-                            LogManager.getLogger()
-                                    .info(
-                                            "[CHAT] {}",
-                                            text.getString()
-                                                    .replaceAll("\r", "\\\\r")
-                                                    .replaceAll("\n", "\\\\n"));
-                            return true;
-                        },
-                -1);
+    }
+
+    /** Makes anything that looks like a link clickable */
+    private class LinkFilter implements IMessageFilter {
+
+        @Override
+        public Optional<Text> filter(Text text) {
+            return filter(FlatText.of(text)).map(FlatText::getText);
+        }
+
+        @Override
+        public Optional<FlatText> filter(FlatText text) {
+            if (text.isEmpty()) {
+                return Optional.empty();
+            }
+            SearchResult search = SearchResult.searchOf(text, urlMatcher);
+            if (search.size() == 0) {
+                return Optional.empty();
+            }
+            Map<StringMatch, StringInsert> insert = new HashMap<>();
+            for (StringMatch match : search.getMatches()) {
+                insert.put(
+                        match,
+                        (current, match1) -> {
+                            String url = match1.match;
+                            if (!protocolMatcher.find(match1.match)) {
+                                url = "https://" + url;
+                            }
+                            if (current.getStyle().getClickEvent() == null) {
+                                return Text.literal(match1.match).fillStyle(current.getStyle().withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, url)));
+                            }
+                            return MutableText.of(current.getContent()).fillStyle(current.getStyle());
+                        });
+            }
+            return Optional.of(FlatText.of(TextUtil.replaceStrings(text.getText(), insert)));
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
     }
 
     /**
@@ -106,31 +166,103 @@ public class MessageDispatcher {
      * the {@link net.minecraft.client.gui.hud.ChatHud} from {@link
      * net.minecraft.client.MinecraftClient} and calling addText is a safer way.
      *
+     * <p>If {@link ConfigStorage.General#ASYNC_PROCESSING} is enabled the text is pre-filtered on
+     * a worker thread and published at the end of a later client tick.
+     *
      * @param text Text that is received
      */
     public void handleText(Text text, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
-        boolean previouslyBlank = text.getString().isEmpty();
-        text = preFilter(text, signature, indicator);
-        if (text.getString().isEmpty() && !previouslyBlank) {
-            // No more
+        // Anything still on the worker has to be published first so the order is kept
+        if (ConfigStorage.General.ASYNC_PROCESSING.config.getBooleanValue() || pending.get() > 0) {
+            pending.incrementAndGet();
+            try {
+                worker.execute(() -> handleAsync(text, signature, indicator));
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
             return;
         }
-        process(text, signature, indicator);
+        FlatText flat = FlatText.of(text);
+        publish(flat.isEmpty(), flat, preFilters, 0, signature, indicator);
+    }
+
+    private void handleAsync(Text text, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
+        boolean queued = false;
+        try {
+            List<IMessageFilter> filters = List.copyOf(preFilters);
+            FlatText flat = FlatText.of(text);
+            boolean previouslyBlank = flat.isEmpty();
+            int safe = 0;
+            // Everything up until the first filter that needs the client
+            while (safe < filters.size() && filters.get(safe).isThreadSafe()) {
+                IMessageFilter filter = filters.get(safe);
+                long start = PipelineProfiler.start();
+                try {
+                    Optional<FlatText> t = filter.filter(flat);
+                    if (t.isPresent()) {
+                        flat = t.get();
+                    }
+                } catch (Exception e) {
+                    AdvancedChatCore.LOGGER.error("Error while filtering a message on the message worker", e);
+                }
+                PipelineProfiler.getInstance().record("prefilter", filter, start);
+                safe++;
+            }
+            FlatText filtered = flat;
+            boolean blank = previouslyBlank;
+            int resume = safe;
+            SyncTaskQueue.getInstance()
+                    .add(
+                            0,
+                            () -> {
+                                try {
+                                    publish(blank, filtered, filters, resume, signature, indicator);
+                                } finally {
+                                    pending.decrementAndGet();
+                                }
+                            });
+            queued = true;
+        } finally {
+            // Nothing will publish it, so it can't hold up later messages
+            if (!queued) {
+                pending.decrementAndGet();
+            }
+        }
     }
 
-    private Text preFilter(Text text, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
-        for (IMessageFilter f : preFilters) {
-            Optional<Text> t = f.filter(text);
+    /**
+     * Runs the remaining pre-filters and sends the text to the processors. Has to be called on
+     * the client thread.
+     */
+    private void publish(
+            boolean previouslyBlank,
+            FlatText text,
+            List<IMessageFilter> filters,
+            int from,
+            @Nullable MessageSignatureData signature,
+            @Nullable MessageIndicator indicator) {
+        for (int i = from; i < filters.size(); i++) {
+            IMessageFilter filter = filters.get(i);
+            long start = PipelineProfiler.start();
+            Optional<FlatText> t = filter.filter(text);
+            PipelineProfiler.getInstance().record("prefilter", filter, start);
             if (t.isPresent()) {
                 text = t.get();
             }
         }
-        return text;
+        if (text.isEmpty() && !previouslyBlank) {
+            // No more
+            return;
+        }
+        process(text, signature, indicator);
     }
 
-    private void process(Text text, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
-        for (IMessageFilter f : processors) {
-            f.filter(text);
+    private void process(FlatText text, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
+        for (IMessageProcessor f : processors) {
+            long start = PipelineProfiler.start();
+            f.process(text, null);
+            PipelineProfiler.getInstance().record("processor", f, start);
         }
     }
 
@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.chat;
+
+import io.github.darkkronicle.advancedchatcore.util.RingBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The one place chat messages are kept. Modules don't copy messages, they hold a {@link View} of
+ * the store, such as the chat history, the hud or the chat log. Each view has its own capacity,
+ * and a message stays in the store for as long as at least one view holds it.
+ *
+ * <p>Since every view references the same {@link ChatMessage}, changes like stacking show up
+ * everywhere without updating copies.
+ *
+ * <p>Views can have a hot limit. Messages past it are cold, and once every view holding a message
+ * has it past its hot limit, the message is packed with {@link ChatMessage#compact()}.
+ */
+@Environment(EnvType.CLIENT)
+public class MessageStore {
+
+    private static final MessageStore INSTANCE = new MessageStore();
+
+    /** Messages by {@link ChatMessage#getOriginId()} along with how many views hold them */
+    private final Map<Long, Stored> byOrigin = new HashMap<>();
+
+    /** Every view that has been created */
+    @Getter private final List<View<?>> views = new ArrayList<>();
+
+    public static MessageStore getInstance() {
+        return INSTANCE;
+    }
+
+    private MessageStore() {}
+
+    private static class Stored {
+
+        private final ChatMessage message;
+
+        private int references = 0;
+
+        /** How many of the references are past the hot limit of their view */
+        private int coldReferences = 0;
+
+        /**
+         * Estimated bytes that views charge for the message. It's taken once so that views take
+         * off exactly what they added even if the message changes while stored.
+         */
+        private final long charge;
+
+        private Stored(ChatMessage message) {
+            this.message = message;
+            this.charge = message.getEstimatedBytes();
+        }
+    }
+
+    /**
+     * Creates a view of messages, newest first
+     *
+     * @param name Name of the view
+     * @param limit Maximum amount of elements
+     * @param message Message an element holds
+     * @param key Key to look elements up by. Can't change while the element is stored.
+     * @param <T> Type of element the view holds
+     * @return New view
+     */
+    public <T> View<T> createView(
+            String name, int limit, Function<? super T, ChatMessage> message, ToLongFunction<? super T> key) {
+        View<T> view = new View<>(name, limit, message, key);
+        views.add(view);
+        return view;
+    }
+
+    /**
+     * Creates a view of messages looked up by {@link ChatMessage#getOriginId()}
+     *
+     * @param name Name of the view
+     * @param limit Maximum amount of messages
+     * @return New view
+     */
+    public View<ChatMessage> createView(String name, int limit) {
+        return createView(name, limit, Function.identity(), ChatMessage::getOriginId);
+    }
+
+    /**
+     * Removes a view and every message that only it held
+     *
+     * @param view View to remove
+     */
+    public void removeView(View<?> view) {
+        view.clear();
+        // Views are lists, so remove would compare contents and could find another empty one
+        views.removeIf(other -> other == view);
+    }
+
+    /**
+     * Get's a message that is held by any view
+     *
+     * @param originId {@link ChatMessage#getOriginId()} of the message
+     * @return Message, null if no view holds it
+     */
+    @Nullable
+    public ChatMessage get(long originId) {
+        Stored stored = byOrigin.get(originId);
+        return stored == null ? null : stored.message;
+    }
+
+    /**
+     * Every message that is held by any view, in no particular order
+     *
+     * @return Copy of the messages
+     */
+    public List<ChatMessage> getMessages() {
+        List<ChatMessage> messages = new ArrayList<>(byOrigin.size());
+        for (Stored stored : byOrigin.values()) {
+            messages.add(stored.message);
+        }
+        return messages;
+    }
+
+    /** Amount of distinct messages held */
+    public int size() {
+        return byOrigin.size();
+    }
+
+    /**
+     * Estimates the memory of every message held. Messages in several views are counted once, and
+     * compacted messages are counted at their packed size.
+     *
+     * @return Estimated bytes
+     * @see ChatMessage#getRetainedBytes()
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Stored stored : byOrigin.values()) {
+            bytes += stored.message.getRetainedBytes();
+        }
+        return bytes;
+    }
+
+    /** Amount of distinct messages held that are compacted */
+    public int getCompactedCount() {
+        int count = 0;
+        for (Stored stored : byOrigin.values()) {
+            if (stored.message.isCompacted()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a reference to a message, storing it if it's new
+     *
+     * @param message Message a view added
+     * @return Bytes to charge the view for the message
+     */
+    private long retain(ChatMessage message) {
+        Stored stored =
+                byOrigin.computeIfAbsent(
+                        message.getOriginId(),
+                        id -> {
+                            // Filters are done with the text by now
+                            message.flatten();
+                            return new Stored(message);
+                        });
+        stored.references++;
+        return stored.charge;
+    }
+
+    /**
+     * Removes a reference to a message, dropping it if it was the last one
+     *
+     * @param message Message a view removed
+     * @param cold If the message was past the view's hot limit
+     * @return Bytes the view was charged for the message
+     */
+    private long release(ChatMessage message, boolean cold) {
+        Stored stored = byOrigin.get(message.getOriginId());
+        if (stored == null) {
+            return 0;
+        }
+        stored.references--;
+        if (cold) {
+            stored.coldReferences--;
+        }
+        if (stored.references <= 0) {
+            byOrigin.remove(message.getOriginId());
+        } else {
+            compactIfCold(stored);
+        }
+        return stored.charge;
+    }
+
+    private void cool(ChatMessage message) {
+        Stored stored = byOrigin.get(message.getOriginId());
+        if (stored == null) {
+            return;
+        }
+        stored.coldReferences++;
+        compactIfCold(stored);
+    }
+
+    private static void compactIfCold(Stored stored) {
+        if (stored.coldReferences > 0 && stored.coldReferences >= stored.references) {
+            stored.message.compact();
+        }
+    }
+
+    /**
+     * A bounded list of messages in the store, newest at index 0. It only holds references, so a
+     * message in several views is only stored once.
+     *
+     * <p>Besides the amount of elements, a view can be limited by the estimated bytes of its
+     * messages. The oldest messages are evicted until it fits, but the newest is always kept.
+     *
+     * <p>Only the newest {@link #getHotLimit()} elements are expected to be rendered often, older
+     * ones may be compacted and get unpacked when they're needed.
+     *
+     * <p>This is read only for anything that isn't one of the methods defined here.
+     *
+     * @param <T> Type of element, either a {@link ChatMessage} or something that holds one
+     */
+    public class View<T> extends AbstractList<T> {
+
+        @Getter private final String name;
+
+        private final Function<? super T, ChatMessage> message;
+
+        private final RingBuffer<T> elements;
+
+        /** Estimated bytes of the messages in this view */
+        @Getter private long estimatedBytes = 0;
+
+        /** Maximum estimated bytes, 0 for no maximum */
+        @Getter private long byteBudget = 0;
+
+        /** Amount of newest elements that are kept unpacked, 0 to keep all of them unpacked */
+        @Getter private int hotLimit = 0;
+
+        /**
+         * Amount of oldest elements that went past the hot limit. Elements only cool once they're
+         * older than every hot one, so the cold ones are always the oldest.
+         */
+        private int coldCount = 0;
+
+        private View(
+                String name,
+                int limit,
+                Function<? super T, ChatMessage> message,
+                ToLongFunction<? super T> key) {
+            this.name = name;
+            this.message = message;
+            this.elements = new RingBuffer<>(limit, key);
+        }
+
+        /**
+         * Adds an element as the newest and evicts the oldest if it goes over the limit or the
+         * byte budget.
+         *
+         * @param value Value to add
+         * @return Evicted elements, newest first
+         */
+        public List<T> push(T value) {
+            added(value);
+            T evicted = elements.push(value);
+            if (evicted != null) {
+                removedOldest(evicted);
+            }
+            coolPastLimit();
+            List<T> overBudget = evictOverBudget();
+            if (evicted == null) {
+                return overBudget;
+            }
+            List<T> all = new ArrayList<>(overBudget.size() + 1);
+            all.addAll(overBudget);
+            all.add(evicted);
+            return all;
+        }
+
+        /**
+         * Removes every element that has a key
+         *
+         * @param id Key to remove
+         * @return Removed elements, newest first
+         */
+        public List<T> removeAll(long id) {
+            int[] indices = elements.indicesOf(id);
+            int coldFrom = elements.size() - coldCount;
+            List<T> removed = elements.removeAll(id);
+            // Both are newest first
+            for (int i = 0; i < removed.size(); i++) {
+                boolean cold = indices[i] >= coldFrom;
+                if (cold) {
+                    coldCount--;
+                }
+                removed(removed.get(i), cold);
+            }
+            return removed;
+        }
+
+        public boolean containsKey(long id) {
+            return elements.containsKey(id);
+        }
+
+        /**
+         * Gets the newest element with a key
+         *
+         * @param id Key to search for
+         * @return Element, null if none have the key
+         */
+        @Nullable
+        public T getByKey(long id) {
+            return elements.getByKey(id);
+        }
+
+        public int getLimit() {
+            return elements.getLimit();
+        }
+
+        /**
+         * Changes the maximum amount of elements
+         *
+         * @param limit New limit
+         * @return Elements that were evicted, newest first
+         */
+        public List<T> setLimit(int limit) {
+            List<T> removed = elements.setLimit(limit);
+            // Evicted from the oldest, so the oldest of them go first
+            for (int i = removed.size() - 1; i >= 0; i--) {
+                removedOldest(removed.get(i));
+            }
+            return removed;
+        }
+
+        /**
+         * Changes the maximum estimated bytes
+         *
+         * @param byteBudget Maximum bytes, 0 for no maximum
+         * @return Elements that were evicted, newest first
+         */
+        public List<T> setByteBudget(long byteBudget) {
+            this.byteBudget = Math.max(byteBudget, 0);
+            return evictOverBudget();
+        }
+
+        /**
+         * Changes how many of the newest elements are kept unpacked. Elements that are already
+         * past the new limit are cooled right away.
+         *
+         * @param hotLimit Amount of elements, 0 to keep all of them unpacked
+         */
+        public void setHotLimit(int hotLimit) {
+            this.hotLimit = Math.max(hotLimit, 0);
+            coolPastLimit();
+        }
+
+        /** Cools the hot elements that are past the hot limit, oldest last */
+        private void coolPastLimit() {
+            if (hotLimit <= 0) {
+                return;
+            }
+            while (elements.size() - coldCount > hotLimit) {
+                cool(message.apply(elements.get(elements.size() - coldCount - 1)));
+                coldCount++;
+            }
+        }
+
+        private List<T> evictOverBudget() {
+            if (byteBudget <= 0 || estimatedBytes <= byteBudget) {
+                return List.of();
+            }
+            List<T> evicted = new ArrayList<>();
+            while (estimatedBytes > byteBudget && elements.size() > 1) {
+                T oldest = elements.removeOldest();
+                removedOldest(oldest);
+                evicted.addFirst(oldest);
+            }
+            return evicted;
+        }
+
+        private void added(T element) {
+            estimatedBytes += retain(message.apply(element));
+        }
+
+        /** Handles an element that was removed as the oldest */
+        private void removedOldest(T element) {
+            boolean cold = coldCount > 0;
+            if (cold) {
+                coldCount--;
+            }
+            removed(element, cold);
+        }
+
+        private void removed(T element, boolean cold) {
+            estimatedBytes -= release(message.apply(element), cold);
+        }
+
+        @Override
+        public T get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return elements.iterator();
+        }
+
+        @Override
+        public void clear() {
+            int coldFrom = elements.size() - coldCount;
+            int index = 0;
+            for (T element : elements) {
+                release(message.apply(element), index++ >= coldFrom);
+            }
+            elements.clear();
+            coldCount = 0;
+            estimatedBytes = 0;
+        }
+    }
+}
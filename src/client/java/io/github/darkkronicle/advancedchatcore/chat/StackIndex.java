@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.chat;
+
+import io.github.darkkronicle.advancedchatcore.util.TextUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The newest messages in {@link ChatHistory} that new messages can stack onto, indexed by the hash
+ * of their content. Finding a stack is one lookup and one string comparison instead of comparing
+ * against every message in the window.
+ *
+ * <p>For stacking messages that are only nearly the same, the {@link
+ * io.github.darkkronicle.advancedchatcore.util.SimHash} of every message is split into {@link
+ * #BANDS} bands. Messages that share any band are candidates, and only the candidates get the
+ * (bounded) edit distance check.
+ */
+@Environment(EnvType.CLIENT)
+class StackIndex {
+
+    /**
+     * Messages that can be stacked onto by {@link ChatMessage#getSequence()}, oldest first. Keyed
+     * so that removing a message doesn't have to search the window.
+     */
+    private final LinkedHashMap<Long, ChatMessage> window = new LinkedHashMap<>();
+
+    /** Messages in the window by content hash, newest first */
+    private final Map<Integer, List<ChatMessage>> byHash = new HashMap<>();
+
+    /** Amount of pieces the 64 bit fingerprint is split into */
+    private static final int BANDS = 8;
+
+    private static final int BAND_BITS = 64 / BANDS;
+
+    private static final int BAND_VALUES = 1 << BAND_BITS;
+
+    /** Messages in the window by band and band value, newest first. Lists are created when needed. */
+    @SuppressWarnings("unchecked")
+    private final List<ChatMessage>[] bySimHash = new List[BANDS * BAND_VALUES];
+
+    private int size = 0;
+
+    /**
+     * How similar the content has to be to stack, from 0 to 1. 1 only stacks messages with the
+     * same content.
+     */
+    @Getter @Setter private double similarity = 1;
+
+    /**
+     * Finds a message that the new message should stack onto
+     *
+     * @param message New message
+     * @return Message in the window with the same content, null if none
+     */
+    @Nullable
+    public ChatMessage find(ChatMessage message) {
+        List<ChatMessage> candidates = byHash.get(message.getContentHash());
+        if (candidates != null) {
+            for (ChatMessage candidate : candidates) {
+                if (message.isSimilar(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        if (similarity >= 1 || window.isEmpty()) {
+            return null;
+        }
+        return findNear(message);
+    }
+
+    @Nullable
+    private ChatMessage findNear(ChatMessage message) {
+        String content = message.getOriginalFlat().getString();
+        long simHash = message.getOriginalFlat().getSimHash();
+        Set<ChatMessage> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+        ChatMessage best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int band = 0; band < BANDS; band++) {
+            List<ChatMessage> candidates = bySimHash[bucket(simHash, band)];
+            if (candidates == null) {
+                continue;
+            }
+            for (ChatMessage candidate : candidates) {
+                if (!checked.add(candidate)) {
+                    continue;
+                }
+                String other = candidate.getOriginalFlat().getString();
+                int max = (int) ((1 - similarity) * Math.max(content.length(), other.length()));
+                if (max >= bestDistance) {
+                    max = bestDistance - 1;
+                }
+                int distance = TextUtil.editDistance(content, other, max);
+                if (distance <= max) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int bucket(long simHash, int band) {
+        int value = (int) (simHash >>> (band * BAND_BITS)) & (BAND_VALUES - 1);
+        return band * BAND_VALUES + value;
+    }
+
+    /**
+     * Adds a new message as the newest in the window
+     *
+     * @param message Message that was added to the history
+     */
+    public void add(ChatMessage message) {
+        if (size == 0) {
+            return;
+        }
+        window.put(message.getSequence(), message);
+        byHash.computeIfAbsent(message.getContentHash(), key -> new ArrayList<>(1)).addFirst(message);
+        long simHash = message.getOriginalFlat().getSimHash();
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(simHash, band);
+            if (bySimHash[bucket] == null) {
+                bySimHash[bucket] = new ArrayList<>(1);
+            }
+            bySimHash[bucket].addFirst(message);
+        }
+        Iterator<ChatMessage> oldest = window.values().iterator();
+        while (window.size() > size) {
+            ChatMessage removed = oldest.next();
+            oldest.remove();
+            unindex(removed);
+        }
+    }
+
+    /**
+     * Removes a message from the window
+     *
+     * @param message Message that was removed from the history
+     * @return If it was in the window
+     */
+    public boolean remove(ChatMessage message) {
+        // Messages are equal by value, only the same object counts
+        if (window.get(message.getSequence()) != message) {
+            return false;
+        }
+        window.remove(message.getSequence());
+        unindex(message);
+        return true;
+    }
+
+    private void unindex(ChatMessage message) {
+        List<ChatMessage> candidates = byHash.get(message.getContentHash());
+        if (candidates == null) {
+            return;
+        }
+        candidates.removeIf(m -> m == message);
+        if (candidates.isEmpty()) {
+            byHash.remove(message.getContentHash());
+        }
+        long simHash = message.getOriginalFlat().getSimHash();
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(simHash, band);
+            if (bySimHash[bucket] == null) {
+                continue;
+            }
+            bySimHash[bucket].removeIf(m -> m == message);
+            if (bySimHash[bucket].isEmpty()) {
+                bySimHash[bucket] = null;
+            }
+        }
+    }
+
+    /** The amount of messages the window holds */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Refills the window from the newest messages
+     *
+     * @param size Amount of messages to keep
+     * @param messages Messages in the history, newest first
+     */
+    public void rebuild(int size, Iterable<ChatMessage> messages) {
+        clear();
+        this.size = Math.max(size, 0);
+        List<ChatMessage> newest = new ArrayList<>(this.size);
+        for (ChatMessage message : messages) {
+            if (newest.size() >= this.size) {
+                break;
+            }
+            newest.add(message);
+        }
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            add(newest.get(i));
+        }
+    }
+
+    public void clear() {
+        window.clear();
+        byHash.clear();
+        Arrays.fill(bySimHash, null);
+    }
+}
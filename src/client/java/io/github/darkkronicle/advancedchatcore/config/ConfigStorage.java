@@ -103,6 +103,22 @@ public class ConfigStorage implements IConfigHandler {
                                 false,
                                 translate("info.chatstackupdate")));
 
+        public static final SaveableConfig<ConfigDouble> CHAT_STACK_SIMILARITY =
+                SaveableConfig.fromConfig(
+                        "chatStackSimilarity",
+                        new ConfigDouble(
+                                translate("chatstacksimilarity"),
+                                1,
+                                0.5,
+                                1,
+                                translate("info.chatstacksimilarity")));
+
+        public static final SaveableConfig<ConfigInteger> HISTORY_MEMORY =
+                SaveableConfig.fromConfig(
+                        "historyMemory",
+                        new ConfigInteger(
+                                translate("historymemory"), 0, 0, 65536, translate("info.historymemory")));
+
         public static final SaveableConfig<ConfigString> MESSAGE_OWNER_REGEX =
                 SaveableConfig.fromConfig(
                         "messageOwnerRegex",
@@ -137,6 +153,22 @@ public class ConfigStorage implements IConfigHandler {
                                 3,
                                 translate("info.profanityabove")));
 
+        public static final SaveableConfig<ConfigBoolean> ASYNC_PROCESSING =
+                SaveableConfig.fromConfig(
+                        "asyncProcessing",
+                        new ConfigBoolean(
+                                translate("asyncprocessing"),
+                                false,
+                                translate("info.asyncprocessing")));
+
+        public static final SaveableConfig<ConfigBoolean> PROFILE_PIPELINE =
+                SaveableConfig.fromConfig(
+                        "profilePipeline",
+                        new ConfigBoolean(
+                                translate("profilepipeline"),
+                                false,
+                                translate("info.profilepipeline")));
+
         public static final ImmutableList<SaveableConfig<? extends IConfigBase>> OPTIONS =
                 ImmutableList.of(
                         TIME_FORMAT,
@@ -146,10 +178,14 @@ public class ConfigStorage implements IConfigHandler {
                         CLEAR_ON_DISCONNECT,
                         CHAT_STACK,
                         CHAT_STACK_UPDATE,
+                        CHAT_STACK_SIMILARITY,
+                        HISTORY_MEMORY,
                         MESSAGE_OWNER_REGEX,
                         FILTER_PROFANITY,
                         PROFANITY_ABOVE,
-                        PROFANITY_ON_WORD_BOUNDARIES
+                        PROFANITY_ON_WORD_BOUNDARIES,
+                        ASYNC_PROCESSING,
+                        PROFILE_PIPELINE
                 );
     }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.config.gui;
+
+import fi.dy.masa.malilib.gui.GuiBase;
+import fi.dy.masa.malilib.util.StringUtils;
+import io.github.darkkronicle.advancedchatcore.chat.MessageStore;
+import io.github.darkkronicle.advancedchatcore.util.MemoryEstimate;
+import io.github.darkkronicle.advancedchatcore.util.StylePool;
+import java.util.ArrayList;
+import java.util.List;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.DrawContext;
+
+/** Shows the estimated memory used by the views of the {@link MessageStore} */
+@Environment(EnvType.CLIENT)
+public class GuiMemory extends GuiBase {
+
+    /** How often the table gets refreshed in milliseconds */
+    private static final long REFRESH = 1000;
+
+    private int tableY;
+
+    private long lastRefresh = 0;
+
+    private String total = "";
+
+    private String styles = "";
+
+    private List<String[]> rows = new ArrayList<>();
+
+    public GuiMemory() {
+        this.title = StringUtils.translate("advancedchat.screen.main");
+    }
+
+    @Override
+    public void initGui() {
+        super.initGui();
+
+        int x = 10;
+        int y = 26;
+
+        y += GuiConfig.addTabButtons(this, x, y) * 22;
+        y += GuiConfig.addAllChildrenButtons(this, GuiConfig.TAB, x, y) * 22;
+
+        tableY = y + 8;
+        lastRefresh = 0;
+    }
+
+    private void refresh() {
+        MessageStore store = MessageStore.getInstance();
+        total = StringUtils.translate(
+                "advancedchatcore.memory.total",
+                store.size(),
+                store.getCompactedCount(),
+                MemoryEstimate.format(store.getEstimatedBytes()));
+        styles = StringUtils.translate(
+                "advancedchatcore.memory.styles",
+                StylePool.size(),
+                StylePool.getMaxSize(),
+                MemoryEstimate.format(StylePool.getEstimatedBytes()));
+        List<String[]> updated = new ArrayList<>();
+        for (MessageStore.View<?> view : store.getViews()) {
+            updated.add(new String[] {
+                    view.getName(),
+                    view.size() + " / " + view.getLimit(),
+                    MemoryEstimate.format(view.getEstimatedBytes()),
+                    view.getByteBudget() > 0
+                            ? MemoryEstimate.format(view.getByteBudget())
+                            : StringUtils.translate("advancedchatcore.memory.unlimited")
+            });
+        }
+        rows = updated;
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float partialTicks) {
+        super.render(context, mouseX, mouseY, partialTicks);
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh >= REFRESH) {
+            lastRefresh = now;
+            refresh();
+        }
+        int x = 10;
+        int y = tableY;
+        context.drawTextWithShadow(textRenderer, total, x, y, -1);
+        y += textRenderer.fontHeight + 2;
+        context.drawTextWithShadow(textRenderer, styles, x, y, -1);
+        y += textRenderer.fontHeight + 8;
+        // View name takes whatever space the numbers don't
+        int column = 90;
+        int nameWidth = Math.max(100, width - 20 - column * 3);
+        String[] header = {
+                StringUtils.translate("advancedchatcore.memory.view"),
+                StringUtils.translate("advancedchatcore.memory.messages"),
+                StringUtils.translate("advancedchatcore.memory.estimated"),
+                StringUtils.translate("advancedchatcore.memory.budget")
+        };
+        drawRow(context, header, x, y, nameWidth, column, 0xFFAAAAAA);
+        y += textRenderer.fontHeight + 4;
+        for (String[] row : rows) {
+            if (y > height - textRenderer.fontHeight) {
+                break;
+            }
+            drawRow(context, row, x, y, nameWidth, column, -1);
+            y += textRenderer.fontHeight + 2;
+        }
+    }
+
+    private void drawRow(DrawContext context, String[] row, int x, int y, int nameWidth, int column, int color) {
+        context.drawTextWithShadow(textRenderer, textRenderer.trimToWidth(row[0], nameWidth - 4), x, y, color);
+        x += nameWidth;
+        for (int i = 1; i < row.length; i++) {
+            context.drawTextWithShadow(textRenderer, row[i], x, y, color);
+            x += column;
+        }
+    }
+}
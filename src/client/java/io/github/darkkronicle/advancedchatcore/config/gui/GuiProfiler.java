@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.config.gui;
+
+import fi.dy.masa.malilib.gui.GuiBase;
+import fi.dy.masa.malilib.gui.Message;
+import fi.dy.masa.malilib.gui.button.IButtonActionListener;
+import fi.dy.masa.malilib.util.StringUtils;
+import io.github.darkkronicle.advancedchatcore.gui.buttons.NamedSimpleButton;
+import io.github.darkkronicle.advancedchatcore.util.LatencyHistogram;
+import io.github.darkkronicle.advancedchatcore.util.PipelineProfiler;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.DrawContext;
+
+/** Shows the results of the {@link PipelineProfiler} */
+@Environment(EnvType.CLIENT)
+public class GuiProfiler extends GuiBase {
+
+    /** How often the table gets refreshed in milliseconds */
+    private static final long REFRESH = 1000;
+
+    private int tableY;
+
+    private long lastRefresh = 0;
+
+    private List<String[]> rows = new ArrayList<>();
+
+    public GuiProfiler() {
+        this.title = StringUtils.translate("advancedchat.screen.main");
+    }
+
+    @Override
+    public void initGui() {
+        super.initGui();
+
+        int x = 10;
+        int y = 26;
+
+        y += GuiConfig.addTabButtons(this, x, y) * 22;
+        y += GuiConfig.addAllChildrenButtons(this, GuiConfig.TAB, x, y) * 22;
+
+        x += addButton(x, y, "advancedchatcore.profiler.button.reset", (button, mouseButton) -> {
+            PipelineProfiler.getInstance().reset();
+            lastRefresh = 0;
+        }) + 2;
+        addButton(x, y, "advancedchatcore.profiler.button.dump", (button, mouseButton) -> {
+            File file = PipelineProfiler.getInstance().dump();
+            addGuiMessage(
+                    Message.MessageType.SUCCESS,
+                    5000,
+                    StringUtils.translate("advancedchatcore.profiler.message.dumped", file.getPath()));
+        });
+        tableY = y + 30;
+        lastRefresh = 0;
+    }
+
+    private int addButton(int x, int y, String translation, IButtonActionListener listener) {
+        return this.addButton(new NamedSimpleButton(x, y, StringUtils.translate(translation)), listener).getWidth();
+    }
+
+    private static String format(long nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2f ms", nanos / 1_000_000d);
+        }
+        if (nanos >= 1_000) {
+            return String.format("%.1f µs", nanos / 1_000d);
+        }
+        return nanos + " ns";
+    }
+
+    private void refresh() {
+        List<String[]> updated = new ArrayList<>();
+        for (PipelineProfiler.Stage stage : PipelineProfiler.getInstance().getStages()) {
+            LatencyHistogram histogram = stage.getHistogram();
+            updated.add(new String[] {
+                    stage.getCategory() + ": " + stage.getName(),
+                    String.valueOf(histogram.getCount()),
+                    format(histogram.getPercentile(50)),
+                    format(histogram.getPercentile(99)),
+                    format(histogram.getMax())
+            });
+        }
+        PipelineProfiler.getInstance().getCounters().forEach((name, count) ->
+                updated.add(new String[] {name, String.valueOf(count), "", "", ""}));
+        rows = updated;
+    }
+
+    @Override
+    public void render(DrawContext context, int mouseX, int mouseY, float partialTicks) {
+        super.render(context, mouseX, mouseY, partialTicks);
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh >= REFRESH) {
+            lastRefresh = now;
+            refresh();
+        }
+        int x = 10;
+        int y = tableY;
+        if (!PipelineProfiler.isEnabled()) {
+            context.drawTextWithShadow(textRenderer, StringUtils.translate("advancedchatcore.profiler.disabled"), x, y, -1);
+            y += textRenderer.fontHeight + 4;
+        }
+        if (rows.isEmpty()) {
+            context.drawTextWithShadow(textRenderer, StringUtils.translate("advancedchatcore.profiler.empty"), x, y, -1);
+            return;
+        }
+        // Stage name takes whatever space the numbers don't
+        int column = 70;
+        int nameWidth = Math.max(100, width - 20 - column * 4);
+        String[] header = {
+                StringUtils.translate("advancedchatcore.profiler.stage"),
+                StringUtils.translate("advancedchatcore.profiler.count"),
+                StringUtils.translate("advancedchatcore.profiler.p50"),
+                StringUtils.translate("advancedchatcore.profiler.p99"),
+                StringUtils.translate("advancedchatcore.profiler.max")
+        };
+        drawRow(context, header, x, y, nameWidth, column, 0xFFAAAAAA);
+        y += textRenderer.fontHeight + 4;
+        for (String[] row : rows) {
+            if (y > height - textRenderer.fontHeight) {
+                break;
+            }
+            drawRow(context, row, x, y, nameWidth, column, -1);
+            y += textRenderer.fontHeight + 2;
+        }
+    }
+
+    private void drawRow(DrawContext context, String[] row, int x, int y, int nameWidth, int column, int color) {
+        context.drawTextWithShadow(textRenderer, textRenderer.trimToWidth(row[0], nameWidth - 4), x, y, color);
+        x += nameWidth;
+        for (int i = 1; i < row.length; i++) {
+            context.drawTextWithShadow(textRenderer, row[i], x, y, color);
+            x += column;
+        }
+    }
+}
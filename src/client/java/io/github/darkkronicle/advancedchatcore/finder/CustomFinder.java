@@ -8,6 +8,7 @@
 package io.github.darkkronicle.advancedchatcore.finder;
 
 import io.github.darkkronicle.advancedchatcore.AdvancedChatCore;
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.interfaces.IFinder;
 import io.github.darkkronicle.advancedchatcore.interfaces.RegistryOption;
 import io.github.darkkronicle.advancedchatcore.util.AbstractRegistry;
@@ -68,6 +69,15 @@ public class CustomFinder extends AbstractRegistry<IFinder, CustomFinder.CustomF
         return option.get().getMatches(input, toMatch);
     }
 
+    @Override
+    public CompiledMatcher compile(String toMatch) {
+        Optional<IFinder> option = getFinder(toMatch);
+        if (option.isEmpty()) {
+            throw new IllegalArgumentException(getHelp(toMatch));
+        }
+        return option.get().compile(toMatch);
+    }
+
     public Optional<IFinder> getFinder(String toMatch) {
         for (CustomFinderOption o : getAll()) {
             if (toMatch.startsWith(o.saveString)) {
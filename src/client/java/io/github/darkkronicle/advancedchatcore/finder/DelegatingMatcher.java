@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.finder;
+
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
+import io.github.darkkronicle.advancedchatcore.interfaces.IFinder;
+import io.github.darkkronicle.advancedchatcore.util.StringMatch;
+import java.util.List;
+import lombok.Getter;
+import net.minecraft.text.Text;
+
+/**
+ * A {@link CompiledMatcher} for finders that have nothing to precompute. Every call is passed
+ * straight through to the {@link IFinder}.
+ */
+public class DelegatingMatcher implements CompiledMatcher {
+
+    @Getter private final IFinder finder;
+
+    @Getter private final String expression;
+
+    public DelegatingMatcher(IFinder finder, String expression) {
+        this.finder = finder;
+        this.expression = expression;
+    }
+
+    @Override
+    public boolean find(String input) {
+        return finder.isMatch(input, expression);
+    }
+
+    @Override
+    public boolean find(Text input) {
+        return finder.isMatch(input, expression);
+    }
+
+    @Override
+    public boolean matches(String input) {
+        for (StringMatch match : finder.getMatches(input, expression)) {
+            if (match.start == 0 && match.end == input.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachMatch(String input, MatchConsumer consumer) {
+        for (StringMatch match : finder.getMatches(input, expression)) {
+            if (!consumer.accept(match.start, match.end)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void forEachMatch(Text input, MatchConsumer consumer) {
+        for (StringMatch match : finder.getMatches(input, expression)) {
+            if (!consumer.accept(match.start, match.end)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public List<StringMatch> getMatches(String input) {
+        return finder.getMatches(input, expression);
+    }
+
+    @Override
+    public List<StringMatch> getMatches(Text input) {
+        return finder.getMatches(input, expression);
+    }
+}
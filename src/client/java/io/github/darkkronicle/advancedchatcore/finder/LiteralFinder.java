@@ -7,11 +7,12 @@
  */
 package io.github.darkkronicle.advancedchatcore.finder;
 
+import io.github.darkkronicle.advancedchatcore.util.FindType;
 import java.util.regex.Pattern;
 
 public class LiteralFinder extends PatternFinder {
     @Override
     public Pattern getPattern(String toMatch) {
-        return Pattern.compile(Pattern.quote(toMatch));
+        return PatternCache.getInstance().get(FindType.LITERAL, toMatch, 0);
     }
 }
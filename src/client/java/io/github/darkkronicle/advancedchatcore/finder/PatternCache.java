@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.finder;
+
+import io.github.darkkronicle.advancedchatcore.util.FindType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A process wide cache of compiled {@link Pattern}s used by the {@link PatternFinder}s.
+ *
+ * <p>Every filter, tab match and pre filter searches with the same handful of expressions on every
+ * message, so compiling them each time is wasted work. Entries are keyed by {@link FindType},
+ * expression and flags and the least recently used entry is evicted once the cache is full.
+ */
+public class PatternCache {
+
+    /** Maximum amount of patterns that will be held at once */
+    public static final int MAX_SIZE = 512;
+
+    private static final PatternCache INSTANCE = new PatternCache(MAX_SIZE);
+
+    public static PatternCache getInstance() {
+        return INSTANCE;
+    }
+
+    private record Key(FindType type, String expression, int flags) {}
+
+    private final int maxSize;
+
+    private final LinkedHashMap<Key, Pattern> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private PatternCache(int maxSize) {
+        this.maxSize = maxSize;
+        // Access order so that the eldest entry is always the least recently used one
+        this.cache =
+                new LinkedHashMap<>(64, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                        if (size() > PatternCache.this.maxSize) {
+                            evictions.increment();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    /**
+     * Get's a compiled pattern for an expression. {@link FindType#REGEX} expressions are compiled
+     * as is, every other type is quoted so that it matches literally.
+     *
+     * @param type How the expression should be interpreted
+     * @param expression Expression to compile
+     * @param flags {@link Pattern} flags
+     * @return The compiled pattern
+     * @throws PatternSyntaxException If the expression is an invalid regex. Invalid expressions are
+     *     not cached.
+     */
+    public Pattern get(FindType type, String expression, int flags) {
+        Key key = new Key(type, expression, flags);
+        synchronized (cache) {
+            Pattern pattern = cache.get(key);
+            if (pattern != null) {
+                hits.increment();
+                return pattern;
+            }
+        }
+        misses.increment();
+        // Compile outside of the lock so a slow regex doesn't block other threads
+        Pattern pattern =
+                Pattern.compile(type == FindType.REGEX ? expression : Pattern.quote(expression), flags);
+        synchronized (cache) {
+            Pattern previous = cache.putIfAbsent(key, pattern);
+            return previous == null ? pattern : previous;
+        }
+    }
+
+    /** Removes every cached pattern. Counters are kept. */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /** Amount of patterns currently cached */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** Amount of lookups that were served from the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Amount of lookups that had to compile a pattern */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Amount of patterns that were evicted to make room */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PatternCache{size="
+                + size()
+                + ", hits="
+                + getHits()
+                + ", misses="
+                + getMisses()
+                + ", evictions="
+                + getEvictions()
+                + '}';
+    }
+}
@@ -7,13 +7,13 @@
  */
 package io.github.darkkronicle.advancedchatcore.finder;
 
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.interfaces.IFinder;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class PatternFinder implements IFinder {
@@ -21,6 +21,15 @@ public abstract class PatternFinder implements IFinder {
     @Nullable
     public abstract Pattern getPattern(String toMatch);
 
+    @Override
+    public CompiledMatcher compile(String toMatch) {
+        Pattern pattern = getPattern(toMatch);
+        if (pattern == null) {
+            throw new IllegalArgumentException("The expression " + toMatch + " is invalid!");
+        }
+        return new PatternMatcher(this, toMatch, pattern);
+    }
+
     @Override
     public boolean isMatch(String input, String toMatch) {
         Pattern pattern = getPattern(toMatch);
@@ -32,16 +41,10 @@ public abstract class PatternFinder implements IFinder {
 
     @Override
     public List<StringMatch> getMatches(String input, String toMatch) {
-        List<StringMatch> matches = new ArrayList<>();
         Pattern pattern = getPattern(toMatch);
         if (pattern == null) {
-            return matches;
-        }
-        Matcher matcher = pattern.matcher(input);
-        while (matcher.find()) {
-            matches.add(new StringMatch(matcher.group(), matcher.start(), matcher.end()));
+            return new ArrayList<>();
         }
-        matcher.reset();
-        return matches;
+        return new PatternMatcher(this, toMatch, pattern).getMatches(input);
     }
 }
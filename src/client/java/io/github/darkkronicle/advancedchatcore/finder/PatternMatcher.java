@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.finder;
+
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
+import io.github.darkkronicle.advancedchatcore.interfaces.IFinder;
+import io.github.darkkronicle.advancedchatcore.util.CaptureGroups;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
+import io.github.darkkronicle.advancedchatcore.util.StringMatch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Getter;
+
+/** A {@link CompiledMatcher} backed by a compiled {@link Pattern}. */
+public class PatternMatcher implements CompiledMatcher {
+
+    @Getter private final IFinder finder;
+
+    @Getter private final String expression;
+
+    @Getter private final Pattern pattern;
+
+    /** Named groups of the pattern, only needed when there are groups to record */
+    private final Map<String, Integer> names;
+
+    public PatternMatcher(IFinder finder, String expression, Pattern pattern) {
+        this.finder = finder;
+        this.expression = expression;
+        this.pattern = pattern;
+        this.names = pattern.namedGroups();
+    }
+
+    /**
+     * Creates a {@link StringMatch} for the current match, recording capture groups if the pattern
+     * has any.
+     */
+    protected StringMatch toStringMatch(Matcher matcher) {
+        CaptureGroups groups = matcher.groupCount() > 0 ? CaptureGroups.of(matcher, names) : null;
+        return new StringMatch(matcher.group(), matcher.start(), matcher.end(), groups);
+    }
+
+    @Override
+    public boolean find(String input) {
+        return pattern.matcher(input).find();
+    }
+
+    @Override
+    public boolean find(FlatText input) {
+        return find(input.getString());
+    }
+
+    @Override
+    public boolean matches(String input) {
+        return pattern.matcher(input).matches();
+    }
+
+    @Override
+    public void forEachMatch(String input, MatchConsumer consumer) {
+        Matcher matcher = pattern.matcher(input);
+        while (matcher.find()) {
+            if (!consumer.accept(matcher.start(), matcher.end())) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public List<StringMatch> getMatches(String input) {
+        List<StringMatch> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(input);
+        while (matcher.find()) {
+            matches.add(toStringMatch(matcher));
+        }
+        return matches;
+    }
+
+    @Override
+    public List<StringMatch> getMatches(FlatText input) {
+        return getMatches(input.getString());
+    }
+}
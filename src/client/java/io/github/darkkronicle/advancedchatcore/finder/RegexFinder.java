@@ -9,24 +9,26 @@ package io.github.darkkronicle.advancedchatcore.finder;
 
 import io.github.darkkronicle.advancedchatcore.AdvancedChatCore;
 import io.github.darkkronicle.advancedchatcore.util.*;
-import net.minecraft.text.ClickEvent;
-import net.minecraft.text.MutableText;
-import net.minecraft.text.Style;
 import net.minecraft.text.Text;
 import net.minecraft.text.TextColor;
 import net.minecraft.util.Formatting;
 
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 public class RegexFinder extends PatternFinder {
 
+    /** Finds named groups within an expression */
+    private static final Pattern NAMED_GROUP = Pattern.compile("\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>");
+
     @Override
     public Pattern getPattern(String toMatch) {
         try {
-            return Pattern.compile(toMatch);
+            return PatternCache.getInstance().get(FindType.REGEX, toMatch, 0);
         } catch (PatternSyntaxException e) {
             AdvancedChatCore.LOGGER.error("The regex " + toMatch + " is invalid!");
             return null;
@@ -34,156 +36,76 @@ public class RegexFinder extends PatternFinder {
     }
 
     @Override
-    public List<StringMatch> getMatches(Text input, String toMatch) {
-        // Find named groups
-        Optional<List<StringMatch>> optionalGroups = SearchUtils.findMatches(toMatch, "\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>", FindType.REGEX);
-        if (optionalGroups.isEmpty()) {
-            // No named groups, go back to just text
-            return getMatches(input.getString(), toMatch);
-        }
-        String string = input.getString();
+    public RegexMatcher compile(String toMatch) {
+        // Throws if invalid, callers compiling are expected to handle it once
+        return new RegexMatcher(this, toMatch, PatternCache.getInstance().get(FindType.REGEX, toMatch, 0));
+    }
 
+    @Override
+    public List<StringMatch> getMatches(Text input, String toMatch) {
         Pattern pattern = getPattern(toMatch);
         if (pattern == null) {
             return new ArrayList<>();
         }
-        Matcher matcher = pattern.matcher(string);
-
-        List<String> groups = optionalGroups.get().stream().map((match) -> match.match.substring(3, match.end - match.start - 1)).filter((match) -> match.startsWith("adv")).toList();
-        List<StringMatch> matches = new ArrayList<>();
-
-        while (matcher.find()) {
-            String total = matcher.group();
-            int start = matcher.start();
-            int stop = matcher.end();
-            if (groups.isEmpty()) {
-                matches.add(new StringMatch(total, start, stop));
-                continue;
-            }
-            boolean stillMatches = true;
-            for (String group : groups) {
-                try {
-                    if (!isAllowed(input, group, matcher)) {
-                        stillMatches = false;
-                        break;
-                    }
-                } catch (IllegalArgumentException e) {
-                    // Group does not exist
-                }
-            }
-            if (stillMatches) {
-                matches.add(new StringMatch(total, start, stop));
-            }
-        }
-
-        matcher.reset();
-        return matches;
+        return new RegexMatcher(this, toMatch, pattern).getMatches(input);
     }
 
-    public static boolean isAllowed(Text input, String group, Matcher matcher) {
-        group = group.toLowerCase(Locale.ROOT);
-        String groupText = matcher.group(group);
-        String groupCondition = group.substring(3);
-        if (groupText == null || groupCondition.isEmpty() || groupText.isEmpty()) {
-            return true;
+    /**
+     * A condition from a named group. Groups named <code>adv0</code> followed by formatting codes
+     * are only allowed to match text that has one of those formats.
+     *
+     * @param group Name of the group
+     * @param codes Formatting codes, any of them being true allows the match
+     */
+    public record StyleCondition(String group, String codes) {
+
+        /**
+         * Parses a group name into a condition
+         *
+         * @param group Name of the named group
+         * @return The condition, or empty if the group doesn't restrict anything
+         */
+        public static Optional<StyleCondition> of(String group) {
+            String condition = group.toLowerCase(Locale.ROOT);
+            if (!condition.startsWith("adv0")) {
+                return Optional.empty();
+            }
+            return Optional.of(new StyleCondition(group, condition.substring(4)));
         }
-        int start = matcher.start(group);
-        int end = matcher.end(group);
-        if (groupCondition.startsWith("0")) {
-            groupCondition = groupCondition.substring(1);
-            while (!groupCondition.isEmpty()) {
-                MutableText truncated = TextUtil.truncate(input, new StringMatch("", start, end));
-                char val = groupCondition.charAt(0);
-                groupCondition = groupCondition.substring(1);
-                if (val == 'l') {
-                    if (!TextUtil.styleChanges(truncated, (style1, style2) -> style1.isBold() && style2.isBold())) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'o') {
-                    if (!TextUtil.styleChanges(truncated, (style1, style2) -> style1.isItalic() && style2.isItalic())) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'k') {
-                    if (!TextUtil.styleChanges(truncated, (style1, style2) -> style1.isObfuscated() && style2.isObfuscated())) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'n') {
-                    if (!TextUtil.styleChanges(truncated, (style1, style2) -> style1.isUnderlined() && style2.isUnderlined())) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'm') {
-                    if (!TextUtil.styleChanges(truncated, (style1, style2) -> style1.isStrikethrough() && style2.isStrikethrough())) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'z') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getClickEvent() != null && style1.getClickEvent().getAction() == ClickEvent.Action.OPEN_URL
-                                    && style2.getClickEvent() != null && style2.getClickEvent().getAction() == ClickEvent.Action.OPEN_URL)
-                    ) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'x') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getClickEvent() != null && style1.getClickEvent().getAction() == ClickEvent.Action.COPY_TO_CLIPBOARD
-                                    && style2.getClickEvent() != null && style2.getClickEvent().getAction() == ClickEvent.Action.COPY_TO_CLIPBOARD)
-                    ) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'y') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getClickEvent() != null && style1.getClickEvent().getAction() == ClickEvent.Action.OPEN_FILE
-                                    && style2.getClickEvent() != null && style2.getClickEvent().getAction() == ClickEvent.Action.OPEN_FILE)
-                    ) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'w') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getClickEvent() != null && style1.getClickEvent().getAction() == ClickEvent.Action.RUN_COMMAND
-                                    && style2.getClickEvent() != null && style2.getClickEvent().getAction() == ClickEvent.Action.RUN_COMMAND)
-                    ) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'v') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getClickEvent() != null && style1.getClickEvent().getAction() == ClickEvent.Action.SUGGEST_COMMAND
-                                    && style2.getClickEvent() != null && style2.getClickEvent().getAction() == ClickEvent.Action.SUGGEST_COMMAND)
-                    ) {
-                        return true;
-                    }
-                    continue;
-                }
-                if (val == 'h') {
-                    if (!TextUtil.styleChanges(
-                            truncated, (style1, style2) -> style1.getHoverEvent() != null
-                                    && style2.getHoverEvent() != null)
-                    ) {
+
+        /**
+         * Checks if the text the group matched meets the condition
+         *
+         * @param index Style runs of the input
+         * @param matcher Matcher currently on a match
+         * @return If the match is allowed
+         */
+        public boolean isAllowed(StyleRunIndex index, Matcher matcher) {
+            int start;
+            int end;
+            try {
+                start = matcher.start(group);
+                end = matcher.end(group);
+            } catch (IllegalArgumentException e) {
+                // Group does not exist
+                return true;
+            }
+            if (start < 0 || start == end) {
+                return true;
+            }
+            for (int i = 0; i < codes.length(); i++) {
+                char val = codes.charAt(i);
+                int flag = getFlag(val);
+                if (flag != 0) {
+                    if (index.allHave(start, end, flag)) {
                         return true;
                     }
                     continue;
                 }
-                if (TextUtil.styleChanges(truncated, (style1, style2) -> Objects.equals(style1.getColor(), style2.getColor()))) {
+                if (!index.isSameColor(start, end)) {
                     continue;
                 }
-                Style current = truncated.getStyle();
-                TextColor color = current.getColor();
+                TextColor color = index.getColor(start);
                 if (color == null) {
                     if (val == 'f') {
                         return true;
@@ -200,6 +122,150 @@ public class RegexFinder extends PatternFinder {
             }
             return false;
         }
-        return true;
+
+        private static int getFlag(char code) {
+            return switch (code) {
+                case 'l' -> StyleRunIndex.BOLD;
+                case 'o' -> StyleRunIndex.ITALIC;
+                case 'k' -> StyleRunIndex.OBFUSCATED;
+                case 'n' -> StyleRunIndex.UNDERLINED;
+                case 'm' -> StyleRunIndex.STRIKETHROUGH;
+                case 'z' -> StyleRunIndex.OPEN_URL;
+                case 'x' -> StyleRunIndex.COPY_TO_CLIPBOARD;
+                case 'y' -> StyleRunIndex.OPEN_FILE;
+                case 'w' -> StyleRunIndex.RUN_COMMAND;
+                case 'v' -> StyleRunIndex.SUGGEST_COMMAND;
+                case 'h' -> StyleRunIndex.HOVER;
+                default -> 0;
+            };
+        }
+    }
+
+    /**
+     * A compiled regex that also checks the style conditions of named groups starting with
+     * <code>adv</code> when searching through {@link Text}.
+     */
+    public static class RegexMatcher extends PatternMatcher {
+
+        /** Conditions parsed from the named groups */
+        private final List<StyleCondition> conditions;
+
+        public RegexMatcher(RegexFinder finder, String expression, Pattern pattern) {
+            super(finder, expression, pattern);
+            List<StyleCondition> found = new ArrayList<>();
+            Matcher matcher = NAMED_GROUP.matcher(expression);
+            while (matcher.find()) {
+                StyleCondition.of(matcher.group(1)).ifPresent(found::add);
+            }
+            this.conditions = List.copyOf(found);
+        }
+
+        @Override
+        public void forEachMatch(Text input, MatchConsumer consumer) {
+            if (conditions.isEmpty()) {
+                forEachMatch(input.getString(), consumer);
+                return;
+            }
+            search(input.getString(), () -> StyleRunIndex.of(input), matcher -> consumer.accept(matcher.start(), matcher.end()));
+        }
+
+        @Override
+        public List<StringMatch> getMatches(Text input) {
+            if (conditions.isEmpty()) {
+                return getMatches(input.getString());
+            }
+            List<StringMatch> matches = new ArrayList<>();
+            search(
+                    input.getString(),
+                    () -> StyleRunIndex.of(input),
+                    matcher -> {
+                        matches.add(toStringMatch(matcher));
+                        return true;
+                    });
+            return matches;
+        }
+
+        @Override
+        public List<StringMatch> getMatches(FlatText input) {
+            if (conditions.isEmpty()) {
+                return getMatches(input.getString());
+            }
+            List<StringMatch> matches = new ArrayList<>();
+            search(
+                    input.getString(),
+                    input::getRuns,
+                    matcher -> {
+                        matches.add(toStringMatch(matcher));
+                        return true;
+                    });
+            return matches;
+        }
+
+        /** Runs through every match that meets the style conditions */
+        private void search(String string, Supplier<StyleRunIndex> runs, Predicate<Matcher> consumer) {
+            Matcher matcher = getPattern().matcher(string);
+            // Only index styles once something needs checking
+            StyleRunIndex index = null;
+            while (matcher.find()) {
+                if (index == null) {
+                    index = runs.get();
+                }
+                boolean stillMatches = true;
+                for (StyleCondition condition : conditions) {
+                    if (!condition.isAllowed(index, matcher)) {
+                        stillMatches = false;
+                        break;
+                    }
+                }
+                if (stillMatches && !consumer.test(matcher)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean find(Text input) {
+            if (conditions.isEmpty()) {
+                return find(input.getString());
+            }
+            boolean[] found = {false};
+            search(
+                    input.getString(),
+                    () -> StyleRunIndex.of(input),
+                    matcher -> {
+                        found[0] = true;
+                        return false;
+                    });
+            return found[0];
+        }
+
+        @Override
+        public boolean find(FlatText input) {
+            if (conditions.isEmpty()) {
+                return find(input.getString());
+            }
+            boolean[] found = {false};
+            search(
+                    input.getString(),
+                    input::getRuns,
+                    matcher -> {
+                        found[0] = true;
+                        return false;
+                    });
+            return found[0];
+        }
+    }
+
+    /**
+     * Checks if a named group meets its style conditions
+     *
+     * @param input Text that was searched
+     * @param group Name of the group
+     * @param matcher Matcher currently on a match
+     * @return If the match is allowed
+     */
+    public static boolean isAllowed(Text input, String group, Matcher matcher) {
+        Optional<StyleCondition> condition = StyleCondition.of(group);
+        return condition.isEmpty() || condition.get().isAllowed(StyleRunIndex.of(input), matcher);
     }
 }
@@ -7,11 +7,12 @@
  */
 package io.github.darkkronicle.advancedchatcore.finder;
 
+import io.github.darkkronicle.advancedchatcore.util.FindType;
 import java.util.regex.Pattern;
 
 public class UpperLowerFinder extends PatternFinder {
     @Override
     public Pattern getPattern(String toMatch) {
-        return Pattern.compile(Pattern.quote(toMatch), Pattern.CASE_INSENSITIVE);
+        return PatternCache.getInstance().get(FindType.UPPERLOWER, toMatch, Pattern.CASE_INSENSITIVE);
     }
 }
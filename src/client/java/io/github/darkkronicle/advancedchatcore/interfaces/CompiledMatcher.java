@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.interfaces;
+
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
+import io.github.darkkronicle.advancedchatcore.util.StringMatch;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.text.Text;
+
+/**
+ * An expression that has already been parsed by an {@link IFinder}. Created through {@link
+ * IFinder#compile(String)} and safe to hold on to and share between threads.
+ */
+public interface CompiledMatcher {
+
+    /** Receives the offsets of a single match. */
+    @FunctionalInterface
+    interface MatchConsumer {
+
+        /**
+         * Called for each match found
+         *
+         * @param start Index the match starts at (inclusive)
+         * @param end Index the match ends at (exclusive)
+         * @return True to keep searching, false to stop
+         */
+        boolean accept(int start, int end);
+    }
+
+    /** The expression this was compiled from */
+    String getExpression();
+
+    /** The {@link IFinder} that compiled this */
+    IFinder getFinder();
+
+    /**
+     * Checks if there is a match anywhere in the input
+     *
+     * @param input String to search
+     * @return If a match is found
+     */
+    boolean find(String input);
+
+    default boolean find(Text input) {
+        return find(input.getString());
+    }
+
+    default boolean find(FlatText input) {
+        return find(input.getText());
+    }
+
+    /**
+     * Checks if the entire input is a match
+     *
+     * @param input String to check
+     * @return If the whole input matches
+     */
+    boolean matches(String input);
+
+    /**
+     * Walks through every match in the input without creating {@link StringMatch} objects.
+     *
+     * @param input String to search
+     * @param consumer Called with the offsets of each match
+     */
+    void forEachMatch(String input, MatchConsumer consumer);
+
+    default void forEachMatch(Text input, MatchConsumer consumer) {
+        forEachMatch(input.getString(), consumer);
+    }
+
+    /**
+     * Finds every match within the input
+     *
+     * @param input String to search
+     * @return {@link List} of found matches
+     */
+    default List<StringMatch> getMatches(String input) {
+        List<StringMatch> matches = new ArrayList<>();
+        forEachMatch(
+                input,
+                (start, end) -> {
+                    matches.add(new StringMatch(input.substring(start, end), start, end));
+                    return true;
+                });
+        return matches;
+    }
+
+    default List<StringMatch> getMatches(Text input) {
+        String string = input.getString();
+        List<StringMatch> matches = new ArrayList<>();
+        forEachMatch(
+                input,
+                (start, end) -> {
+                    matches.add(new StringMatch(string.substring(start, end), start, end));
+                    return true;
+                });
+        return matches;
+    }
+
+    default List<StringMatch> getMatches(FlatText input) {
+        return getMatches(input.getText());
+    }
+}
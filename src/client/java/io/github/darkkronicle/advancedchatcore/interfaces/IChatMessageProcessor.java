@@ -34,7 +34,8 @@ public interface IChatMessageProcessor {
     }
 
     /**
-     * A method to handle a {@link ChatMessage} update.
+     * A method to handle a {@link ChatMessage} update. The flattened original text is available
+     * through {@link ChatMessage#getOriginalFlat()}.
      *
      * @param message Message that was updated
      * @param type Type of the update
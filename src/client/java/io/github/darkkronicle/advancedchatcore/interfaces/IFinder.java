@@ -7,6 +7,7 @@
  */
 package io.github.darkkronicle.advancedchatcore.interfaces;
 
+import io.github.darkkronicle.advancedchatcore.finder.DelegatingMatcher;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
 import net.minecraft.text.Text;
 
@@ -25,4 +26,16 @@ public interface IFinder {
     default List<StringMatch> getMatches(Text input, String toMatch) {
         return getMatches(input.getString(), toMatch);
     }
+
+    /**
+     * Parses an expression once so that it can be searched with repeatedly. Should be used for
+     * anything that is stored in config and checked against every message.
+     *
+     * @param toMatch Expression to compile
+     * @return Reusable {@link CompiledMatcher}
+     * @throws IllegalArgumentException If the expression is invalid for this finder
+     */
+    default CompiledMatcher compile(String toMatch) {
+        return new DelegatingMatcher(this, toMatch);
+    }
 }
@@ -7,6 +7,7 @@
  */
 package io.github.darkkronicle.advancedchatcore.interfaces;
 
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import net.minecraft.text.Text;
 import java.util.Optional;
 
@@ -19,4 +20,59 @@ public interface IMessageFilter {
      * @return Modified text. If empty, the text won't be changed.
      */
     Optional<Text> filter(Text text);
+
+    /**
+     * Modifies already flattened text. Filters that only need the string should override this so
+     * that it isn't rebuilt.
+     *
+     * @param text Text to modify
+     * @return Modified text. If empty, the text won't be changed.
+     */
+    default Optional<FlatText> filter(FlatText text) {
+        return filter(text.getText()).map(text::update);
+    }
+
+    /**
+     * Whether this filter can be ran off of the client thread when asynchronous processing is
+     * enabled.
+     *
+     * <p>Filters that return true may be called from the message worker while the client is
+     * rendering. They can't touch anything owned by the client (sounds, toasts, the world, screens)
+     * and any state they read has to be safe to read from another thread. Messages are still
+     * filtered one at a time and in the order they were received.
+     *
+     * <p>Once a filter that isn't thread safe is reached, it and every filter after it run on the
+     * client thread instead.
+     *
+     * @return If this filter can run on the message worker
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Marks a filter as thread safe. Useful for lambdas, which can't override {@link
+     * #isThreadSafe()}.
+     *
+     * @param filter Filter that follows the contract of {@link #isThreadSafe()}
+     * @return Filter that reports itself as thread safe
+     */
+    static IMessageFilter threadSafe(IMessageFilter filter) {
+        return new IMessageFilter() {
+            @Override
+            public Optional<Text> filter(Text text) {
+                return filter.filter(text);
+            }
+
+            @Override
+            public Optional<FlatText> filter(FlatText text) {
+                return filter.filter(text);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        };
+    }
 }
@@ -7,6 +7,7 @@
  */
 package io.github.darkkronicle.advancedchatcore.interfaces;
 
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import net.minecraft.client.gui.hud.MessageIndicator;
 import net.minecraft.network.message.MessageSignatureData;
 import net.minecraft.text.Text;
@@ -31,6 +32,19 @@ public interface IMessageProcessor extends IMessageFilter {
         return Optional.empty();
     }
 
+    /**
+     * Processes flattened text without the unfiltered text.
+     *
+     * @param text Text to modify
+     * @return Empty
+     */
+    @Deprecated
+    @Override
+    default Optional<FlatText> filter(FlatText text) {
+        process(text, null);
+        return Optional.empty();
+    }
+
     /**
      * Consumes text.
      *
@@ -43,4 +57,16 @@ public interface IMessageProcessor extends IMessageFilter {
     default boolean process(Text text, @Nullable Text unfilterered, @Nullable MessageSignatureData signature, @Nullable MessageIndicator indicator) {
         return process(text, unfilterered);
     }
+
+    /**
+     * Consumes flattened text. Processors that search the string should override this so it isn't
+     * rebuilt.
+     *
+     * @param text Final text to process
+     * @param unfiltered Original text (if available)
+     * @return If the processing was a success
+     */
+    default boolean process(FlatText text, @Nullable FlatText unfiltered) {
+        return process(text.getText(), unfiltered == null ? null : unfiltered.getText());
+    }
 }
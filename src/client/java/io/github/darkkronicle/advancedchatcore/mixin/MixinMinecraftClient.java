@@ -11,6 +11,7 @@ import io.github.darkkronicle.advancedchatcore.chat.AdvancedChatScreen;
 import io.github.darkkronicle.advancedchatcore.chat.AdvancedSleepingChatScreen;
 import io.github.darkkronicle.advancedchatcore.chat.ChatHistory;
 import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
+import io.github.darkkronicle.advancedchatcore.util.StylePool;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.MinecraftClient;
@@ -32,6 +33,8 @@ public class MixinMinecraftClient {
         if (ConfigStorage.General.CLEAR_ON_DISCONNECT.config.getBooleanValue()) {
             ChatHistory.getInstance().clearAll();
         }
+        // Styles of the last server are unlikely to come up again
+        StylePool.clear();
     }
 
     @Inject(method = "openChatScreen(Ljava/lang/String;)V",
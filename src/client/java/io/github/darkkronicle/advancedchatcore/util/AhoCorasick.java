@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable <a href="https://en.wikipedia.org/wiki/Aho%E2%80%93Corasick_algorithm">Aho-Corasick</a>
+ * automaton. Finds every occurrence of any number of words in a single pass over the input.
+ *
+ * <p>Each word is added with an id, multiple words can share an id and the same word can be added
+ * with multiple ids. Once built it is safe to search from multiple threads.
+ */
+public class AhoCorasick {
+
+    /** Receives each word that was found. */
+    @FunctionalInterface
+    public interface MatchConsumer {
+
+        /**
+         * Called for each occurrence of a word. Occurrences are reported in order of where they end.
+         *
+         * @param id Id the word was added with
+         * @param start Index the occurrence starts at (inclusive)
+         * @param end Index the occurrence ends at (exclusive)
+         * @return True to keep searching, false to stop
+         */
+        boolean accept(int id, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final boolean ignoreCase;
+
+    /** Sorted transition characters for each node */
+    private final char[][] keys;
+
+    /** Node each transition goes to, same order as {@link #keys} */
+    private final int[][] next;
+
+    /** Longest proper suffix of a node that is also in the trie */
+    private final int[] fail;
+
+    /** Closest node along the fail chain that has outputs, 0 if none */
+    private final int[] dictionary;
+
+    /** Ids of the words that end at a node */
+    private final int[][] outputs;
+
+    /** Length of the string a node represents */
+    private final int[] depth;
+
+    private final int wordCount;
+
+    private AhoCorasick(Builder builder) {
+        this.ignoreCase = builder.ignoreCase;
+        this.wordCount = builder.wordCount;
+        int size = builder.children.size();
+        keys = new char[size][];
+        next = new int[size][];
+        fail = new int[size];
+        dictionary = new int[size];
+        outputs = new int[size][];
+        depth = new int[size];
+        for (int i = 0; i < size; i++) {
+            TreeMap<Character, Integer> children = builder.children.get(i);
+            char[] k = new char[children.size()];
+            int[] n = new int[children.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> entry : children.entrySet()) {
+                k[j] = entry.getKey();
+                n[j] = entry.getValue();
+                j++;
+            }
+            keys[i] = k;
+            next[i] = n;
+            List<Integer> out = builder.outputs.get(i);
+            outputs[i] = out.isEmpty() ? NO_OUTPUT : out.stream().mapToInt(Integer::intValue).toArray();
+            depth[i] = builder.depth.get(i);
+        }
+        // Breadth first so that every fail link points to an already computed node
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : next[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int j = 0; j < keys[node].length; j++) {
+                char c = keys[node][j];
+                int child = next[node][j];
+                int state = fail[node];
+                int target = step(state, c);
+                while (target < 0 && state != 0) {
+                    state = fail[state];
+                    target = step(state, c);
+                }
+                fail[child] = target < 0 ? 0 : target;
+                int f = fail[child];
+                dictionary[child] = outputs[f].length > 0 ? f : dictionary[f];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int step(int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index < 0 ? -1 : next[node][index];
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    /** If no words were added */
+    public boolean isEmpty() {
+        return wordCount == 0;
+    }
+
+    /**
+     * Finds every occurrence, including overlapping ones, of the words within the input.
+     *
+     * @param input Input to search
+     * @param consumer Called for each occurrence
+     */
+    public void search(CharSequence input, MatchConsumer consumer) {
+        if (wordCount == 0) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = fold(input.charAt(i));
+            int target = step(state, c);
+            while (target < 0 && state != 0) {
+                state = fail[state];
+                target = step(state, c);
+            }
+            state = target < 0 ? 0 : target;
+            int out = outputs[state].length > 0 ? state : dictionary[state];
+            while (out != 0) {
+                int length = depth[out];
+                for (int id : outputs[out]) {
+                    if (!consumer.accept(id, i + 1 - length, i + 1)) {
+                        return;
+                    }
+                }
+                out = dictionary[out];
+            }
+        }
+    }
+
+    /**
+     * Marks the id of every word that occurs within the input.
+     *
+     * @param input Input to search
+     * @param found {@link BitSet} that ids get set in
+     */
+    public void collect(CharSequence input, BitSet found) {
+        search(
+                input,
+                (id, start, end) -> {
+                    found.set(id);
+                    return true;
+                });
+    }
+
+    /**
+     * Checks if any word occurs within the input
+     *
+     * @param input Input to search
+     * @return If any word was found
+     */
+    public boolean containsAny(CharSequence input) {
+        boolean[] found = {false};
+        search(
+                input,
+                (id, start, end) -> {
+                    found[0] = true;
+                    return false;
+                });
+        return found[0];
+    }
+
+    public static Builder builder(boolean ignoreCase) {
+        return new Builder(ignoreCase);
+    }
+
+    /** Collects words and then builds the automaton. */
+    public static class Builder {
+
+        private final boolean ignoreCase;
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> outputs = new ArrayList<>();
+        private final List<Integer> depth = new ArrayList<>();
+        private int wordCount = 0;
+
+        private Builder(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            newNode(0);
+        }
+
+        private int newNode(int nodeDepth) {
+            children.add(new TreeMap<>());
+            outputs.add(new ArrayList<>(1));
+            depth.add(nodeDepth);
+            return children.size() - 1;
+        }
+
+        /**
+         * Adds a word to search for. Empty words are ignored since they can't be found.
+         *
+         * @param word Word to find
+         * @param id Id that will be reported when the word is found
+         * @return This builder
+         */
+        public Builder add(CharSequence word, int id) {
+            if (word.isEmpty()) {
+                return this;
+            }
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (ignoreCase) {
+                    c = Character.toLowerCase(c);
+                }
+                Integer child = children.get(node).get(c);
+                if (child == null) {
+                    child = newNode(i + 1);
+                    children.get(node).put(c, child);
+                }
+                node = child;
+            }
+            outputs.get(node).add(id);
+            wordCount++;
+            return this;
+        }
+
+        public AhoCorasick build() {
+            return new AhoCorasick(this);
+        }
+    }
+}
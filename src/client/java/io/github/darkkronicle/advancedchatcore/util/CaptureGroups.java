@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.regex.Matcher;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The capture groups of a single regex match, recorded while the match was found so they never
+ * need to be recovered by running the regex again.
+ */
+public class CaptureGroups {
+
+    /** Start and end of each group, group 0 being the whole match. -1 if it didn't participate */
+    private final int[] offsets;
+
+    private final String[] values;
+
+    /** Name of each named group to its number */
+    private final Map<String, Integer> names;
+
+    private CaptureGroups(int[] offsets, String[] values, Map<String, Integer> names) {
+        this.offsets = offsets;
+        this.values = values;
+        this.names = names;
+    }
+
+    /**
+     * Records the groups of the match a {@link Matcher} is currently on
+     *
+     * @param matcher Matcher that just found a match
+     * @param names Named groups of the pattern
+     * @return Recorded groups
+     */
+    public static CaptureGroups of(Matcher matcher, Map<String, Integer> names) {
+        int count = matcher.groupCount() + 1;
+        int[] offsets = new int[count * 2];
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i * 2] = matcher.start(i);
+            offsets[i * 2 + 1] = matcher.end(i);
+            values[i] = matcher.group(i);
+        }
+        return new CaptureGroups(offsets, values, names);
+    }
+
+    /**
+     * Creates groups that only have content, used when groups don't come from a regex.
+     *
+     * @param values Content of each group, group 0 first
+     * @return Groups without offsets or names
+     */
+    public static CaptureGroups of(String... values) {
+        int[] offsets = new int[values.length * 2];
+        Arrays.fill(offsets, -1);
+        return new CaptureGroups(offsets, values.clone(), Map.of());
+    }
+
+    /** Amount of capture groups, not counting group 0 */
+    public int count() {
+        return values.length - 1;
+    }
+
+    /**
+     * Get's the content of a group
+     *
+     * @param group Group number, 0 being the whole match
+     * @return Content of the group, null if it didn't participate
+     */
+    @Nullable
+    public String get(int group) {
+        return values[group];
+    }
+
+    /** Index in the input the group starts at, -1 if it didn't participate */
+    public int getStart(int group) {
+        return offsets[group * 2];
+    }
+
+    /** Index in the input the group ends at, -1 if it didn't participate */
+    public int getEnd(int group) {
+        return offsets[group * 2 + 1];
+    }
+
+    /**
+     * Get's the number of a named group
+     *
+     * @param name Name of the group
+     * @return Group number, -1 if there is no group with that name
+     */
+    public int indexOf(String name) {
+        Integer index = names.get(name);
+        return index == null ? -1 : index;
+    }
+}
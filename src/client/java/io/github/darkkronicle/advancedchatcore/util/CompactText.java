@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+
+/**
+ * A {@link StyledString} packed down for long term storage: the string as compressed UTF-8 and the
+ * style runs over it. The styles are kept as they are instead of being serialized, since they are
+ * immutable and are usually shared between many messages through the {@link StylePool}.
+ *
+ * <p>Texts are flattened first, so they look and behave the same when rendered but translatable
+ * parts are resolved to their current string.
+ */
+@Environment(EnvType.CLIENT)
+public class CompactText {
+
+    /** Strings shorter than this in bytes aren't worth compressing */
+    private static final int COMPRESS_OVER = 96;
+
+    /** UTF-8 of the string, compressed if {@link #length} isn't -1 */
+    private final byte[] data;
+
+    /** Length of the uncompressed UTF-8, -1 if {@link #data} isn't compressed */
+    private final int length;
+
+    /** Index in the string that each run ends at (exclusive) */
+    private final int[] ends;
+
+    /** Style of each run */
+    private final Style[] styles;
+
+    private CompactText(byte[] data, int length, int[] ends, Style[] styles) {
+        this.data = data;
+        this.length = length;
+        this.ends = ends;
+        this.styles = styles;
+    }
+
+    /**
+     * Packs a text
+     *
+     * @param text Text to pack
+     * @return Packed text
+     */
+    public static CompactText of(Text text) {
+        return of(StyledString.of(text));
+    }
+
+    /**
+     * Packs a styled string
+     *
+     * @param styled Styled string to pack
+     * @return Packed text
+     */
+    public static CompactText of(StyledString styled) {
+        int[] ends = new int[styled.getRunCount()];
+        Style[] styles = new Style[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = styled.getRunEnd(i);
+            styles[i] = styled.getRunStyle(i);
+        }
+        byte[] utf = styled.getString().getBytes(StandardCharsets.UTF_8);
+        if (utf.length < COMPRESS_OVER) {
+            return new CompactText(utf, -1, ends, styles);
+        }
+        return new CompactText(compress(utf), utf.length, ends, styles);
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress() {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(bytes, read, length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            // Only ever created by compress, so this would be a bug
+            throw new IllegalStateException("Corrupt compact text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Get's the plain string without building the styled text. Useful for searching.
+     *
+     * @return Unpacked string
+     */
+    public String getString() {
+        byte[] bytes = length < 0 ? data : decompress();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unpacks the styled string
+     *
+     * @return New styled string
+     */
+    public StyledString toStyledString() {
+        return StyledString.ofRuns(getString(), ends, styles);
+    }
+
+    /**
+     * Estimates how many bytes this keeps alive. Styles are counted even though they are usually
+     * shared.
+     *
+     * @return Estimated bytes
+     */
+    public long getEstimatedBytes() {
+        return 48 + data.length + 4L * ends.length + MemoryEstimate.of(styles);
+    }
+}
@@ -38,6 +38,9 @@ public enum FindType implements IConfigOptionListEntry {
 
     private final Supplier<IFinder> finder;
 
+    /** Shared finder, finders hold no state so one instance can be reused everywhere */
+    private volatile IFinder instance = null;
+
     private static String translate(String key) {
         return StringUtils.translate("advancedchat.config.findtype." + key);
     }
@@ -49,7 +52,13 @@ public enum FindType implements IConfigOptionListEntry {
 
     /** Get's the finder associated with this */
     public IFinder getFinder() {
-        return finder.get();
+        IFinder current = instance;
+        if (current == null) {
+            // Races only create an extra finder, which is harmless
+            current = finder.get();
+            instance = current;
+        }
+        return current;
     }
 
     /**
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.Text;
+
+/**
+ * A {@link Text} along with its flattened string, style runs and content hash. Walking a text tree
+ * to get its string isn't free, so this is created once per version of a message and passed along
+ * to everything that needs it.
+ *
+ * <p>The text that this holds should not be modified. If it is, create a new {@link FlatText}.
+ */
+@Environment(EnvType.CLIENT)
+public class FlatText {
+
+    /** Empty text */
+    public static final FlatText EMPTY = of(Text.empty());
+
+    /** The text this was created from */
+    @Getter private final Text text;
+
+    /** Style runs over {@link #string} */
+    @Getter private final StyleRunIndex runs;
+
+    /** The same as {@link Text#getString()} */
+    @Getter private final String string;
+
+    /** Hash of {@link #string} */
+    @Getter private final int contentHash;
+
+    private long simHash;
+
+    private boolean hasSimHash = false;
+
+    private FlatText(Text text, StyleRunIndex runs) {
+        this.text = text;
+        this.runs = runs;
+        this.string = runs.getString();
+        this.contentHash = string.hashCode();
+    }
+
+    /**
+     * Flattens a text
+     *
+     * @param text Text to flatten
+     * @return Flattened text
+     */
+    public static FlatText of(Text text) {
+        return new FlatText(text, StyleRunIndex.of(text));
+    }
+
+    /**
+     * Reuses this if the text hasn't changed, otherwise flattens the new text.
+     *
+     * @param text Text that may have been replaced
+     * @return Flattened text
+     */
+    public FlatText update(Text text) {
+        if (text == this.text) {
+            return this;
+        }
+        return of(text);
+    }
+
+    public boolean isEmpty() {
+        return string.isEmpty();
+    }
+
+    /**
+     * Checks if the content of two texts is the same, ignoring style
+     *
+     * @param other Text to compare to
+     * @return If the strings are equal
+     */
+    public boolean contentEquals(FlatText other) {
+        return contentHash == other.contentHash && string.equals(other.string);
+    }
+
+    /**
+     * Gets the {@link SimHash} of the string. It is only calculated the first time it is needed.
+     *
+     * @return 64 bit fingerprint
+     */
+    public long getSimHash() {
+        if (!hasSimHash) {
+            simHash = SimHash.of(string);
+            hasSimHash = true;
+        }
+        return simHash;
+    }
+
+    @Override
+    public String toString() {
+        return string;
+    }
+}
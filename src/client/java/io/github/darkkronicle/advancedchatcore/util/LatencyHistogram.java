@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size histogram of durations in nanoseconds that can be recorded to from multiple threads
+ * without locking.
+ *
+ * <p>Each power of two is split into {@link #SUB_BUCKETS} buckets, so any percentile is within
+ * 12.5% of the real value no matter how large it is.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Enough buckets to hold {@link Long#MAX_VALUE} */
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder total = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Smallest value that goes into a bucket */
+    private static long getLowest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Records a duration
+     *
+     * @param nanos Duration in nanoseconds, negative values are counted as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(getBucket(nanos));
+        count.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /** Average duration in nanoseconds, 0 if nothing was recorded */
+    public long getMean() {
+        long amount = count.sum();
+        return amount == 0 ? 0 : total.sum() / amount;
+    }
+
+    /**
+     * Estimates a percentile. Values recorded while this runs may or may not be counted.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Estimated duration in nanoseconds, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long amount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            amount += counts[i];
+        }
+        if (amount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * amount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                if (i + 1 >= BUCKETS) {
+                    return getMax();
+                }
+                // Middle of the bucket, but never more than what was actually recorded
+                long middle = (getLowest(i) + getLowest(i + 1) - 1) / 2;
+                return Math.min(middle, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+
+/**
+ * Rough estimates of how many bytes objects keep alive. These don't have to be exact, they're
+ * meant to tell a thousand short lines apart from a thousand huge messages with hover text.
+ *
+ * <p>Styles are counted towards every text that holds them, even ones that are shared through the
+ * {@link StylePool}, so that a text is never estimated as cheaper than it would be on its own.
+ */
+@UtilityClass
+@Environment(EnvType.CLIENT)
+public class MemoryEstimate {
+
+    /** Object header and a few fields */
+    private final long OBJECT = 32;
+
+    /** A text node along with its list of siblings */
+    private final long TEXT_NODE = OBJECT + 40;
+
+    private final long STYLE = OBJECT + 40;
+
+    /** Hover events that aren't text (items, entities) */
+    private final long OTHER_HOVER = 256;
+
+    /**
+     * Estimates a string
+     *
+     * @param string String to estimate, can be null
+     * @return Estimated bytes
+     */
+    public long of(String string) {
+        if (string == null) {
+            return 0;
+        }
+        return OBJECT + 16 + 2L * string.length();
+    }
+
+    /**
+     * Estimates a text tree along with its styles and hover text. Objects that show up more than
+     * once in the tree are only counted once.
+     *
+     * @param text Text to estimate
+     * @return Estimated bytes
+     */
+    public long of(Text text) {
+        return of(text, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private long of(Text text, Set<Object> counted) {
+        if (text == null || !counted.add(text)) {
+            return 0;
+        }
+        if (text instanceof StyledString styled) {
+            return styled.getEstimatedBytes();
+        }
+        long[] bytes = {TEXT_NODE};
+        text.getContent()
+                .visit(
+                        string -> {
+                            bytes[0] += of(string);
+                            return Optional.empty();
+                        });
+        bytes[0] += of(text.getStyle(), counted);
+        for (Text sibling : text.getSiblings()) {
+            bytes[0] += 8 + of(sibling, counted);
+        }
+        return bytes[0];
+    }
+
+    /**
+     * Estimates styles along with their hover text. Styles that show up more than once are only
+     * counted once.
+     *
+     * @param styles Styles to estimate
+     * @return Estimated bytes, including the array
+     */
+    public long of(Style[] styles) {
+        Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = OBJECT + 8L * styles.length;
+        for (Style style : styles) {
+            bytes += of(style, counted);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates a style along with its hover text
+     *
+     * @param style Style to estimate
+     * @return Estimated bytes
+     */
+    public long of(Style style) {
+        return of(style, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private long of(Style style, Set<Object> counted) {
+        if (style == null || style.isEmpty() || !counted.add(style)) {
+            return 0;
+        }
+        long bytes = STYLE + of(style.getInsertion());
+        ClickEvent click = style.getClickEvent();
+        if (click != null && counted.add(click)) {
+            bytes += OBJECT + of(click.getValue());
+        }
+        HoverEvent hover = style.getHoverEvent();
+        if (hover != null && counted.add(hover)) {
+            Text hoverText = hover.getValue(HoverEvent.Action.SHOW_TEXT);
+            bytes += OBJECT + (hoverText == null ? OTHER_HOVER : of(hoverText, counted));
+        }
+        return bytes;
+    }
+
+    /**
+     * Formats bytes to be read
+     *
+     * @param bytes Amount of bytes
+     * @return String like {@code 12.3 KiB}
+     */
+    public String format(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%.1f MiB", bytes / (1024d * 1024d));
+        }
+        if (bytes >= 1024) {
+            return String.format("%.1f KiB", bytes / 1024d);
+        }
+        return bytes + " B";
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import fi.dy.masa.malilib.util.FileUtils;
+import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+/**
+ * Times each stage of the message pipeline (pre-filters, filters, processors...) so that slow ones
+ * can be found.
+ *
+ * <p>Usage is
+ *
+ * <pre>{@code
+ * long start = PipelineProfiler.start();
+ * // Work
+ * PipelineProfiler.getInstance().record("prefilter", filter, start);
+ * }</pre>
+ *
+ * Work that doesn't need timing, such as how often a shortcut was taken, can be counted with
+ * {@link #count(String, String)}.
+ *
+ * <p>When {@link ConfigStorage.General#PROFILE_PIPELINE} is off {@link #start()} is a single config
+ * check and {@link #record(String, Object, long)} returns right away.
+ */
+@Environment(EnvType.CLIENT)
+public class PipelineProfiler {
+
+    private static final PipelineProfiler INSTANCE = new PipelineProfiler();
+
+    /** Returned by {@link #start()} when profiling is disabled */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    public static PipelineProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /** A single timed stage */
+    public static class Stage {
+
+        /** Kind of stage, such as prefilter or processor */
+        @Getter private final String category;
+
+        /** What is being timed within the category */
+        @Getter private final String name;
+
+        @Getter private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Stage(String category, String name) {
+            this.category = category;
+            this.name = name;
+        }
+    }
+
+    /** Stages per category, keyed by whatever was being timed */
+    private final Map<String, Map<Object, Stage>> stages = new ConcurrentHashMap<>();
+
+    /** Counters keyed by category and name */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private PipelineProfiler() {}
+
+    public static boolean isEnabled() {
+        return ConfigStorage.General.PROFILE_PIPELINE.config.getBooleanValue();
+    }
+
+    /**
+     * Starts timing a stage
+     *
+     * @return Current time in nanoseconds, or {@link #DISABLED}
+     */
+    public static long start() {
+        return isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records how long a stage took since {@link #start()}
+     *
+     * @param category Kind of stage
+     * @param owner What was timed. Strings are used as the name, anything else is named after its
+     *     class
+     * @param start Value returned from {@link #start()}
+     */
+    public void record(String category, Object owner, long start) {
+        if (start == DISABLED) {
+            return;
+        }
+        long time = System.nanoTime() - start;
+        stages.computeIfAbsent(category, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(owner, key -> new Stage(category, getName(key)))
+                .getHistogram()
+                .record(time);
+    }
+
+    /**
+     * Adds one to a counter if profiling is enabled
+     *
+     * @param category Kind of stage the counter belongs to
+     * @param name What is being counted
+     */
+    public void count(String category, String name) {
+        if (!isEnabled()) {
+            return;
+        }
+        counters.computeIfAbsent(category + ": " + name, key -> new LongAdder()).increment();
+    }
+
+    /** Every counter by name, sorted by name */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> all = new TreeMap<>();
+        counters.forEach((name, adder) -> all.put(name, adder.sum()));
+        return all;
+    }
+
+    private static String getName(Object owner) {
+        if (owner instanceof String string) {
+            return string;
+        }
+        // Anonymous classes don't have a simple name
+        String name = owner.getClass().getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /** Every stage that has been recorded, slowest (by p99) first */
+    public List<Stage> getStages() {
+        List<Stage> all = new ArrayList<>();
+        for (Map<Object, Stage> category : stages.values()) {
+            all.addAll(category.values());
+        }
+        all.sort(Comparator.comparingLong((Stage stage) -> stage.getHistogram().getPercentile(99)).reversed());
+        return all;
+    }
+
+    public void reset() {
+        stages.clear();
+        counters.clear();
+    }
+
+    public JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("time", LocalDateTime.now().toString());
+        JsonArray array = new JsonArray();
+        for (Stage stage : getStages()) {
+            LatencyHistogram histogram = stage.getHistogram();
+            JsonObject obj = new JsonObject();
+            obj.addProperty("category", stage.getCategory());
+            obj.addProperty("name", stage.getName());
+            obj.addProperty("count", histogram.getCount());
+            obj.addProperty("mean_ns", histogram.getMean());
+            obj.addProperty("p50_ns", histogram.getPercentile(50));
+            obj.addProperty("p99_ns", histogram.getPercentile(99));
+            obj.addProperty("max_ns", histogram.getMax());
+            array.add(obj);
+        }
+        root.add("stages", array);
+        JsonObject counts = new JsonObject();
+        getCounters().forEach(counts::addProperty);
+        root.add("counters", counts);
+        return root;
+    }
+
+    /**
+     * Writes the current results to {@code config/advancedchat/profiler.json}
+     *
+     * @return File that was written to
+     */
+    public File dump() {
+        File dir = FileUtils.getConfigDirectory().toPath().resolve("advancedchat").toFile();
+        dir.mkdirs();
+        File file = new File(dir, "profiler.json");
+        ConfigStorage.writeJsonToFile(toJson(), file);
+        return file;
+    }
+}
@@ -14,9 +14,13 @@ import java.io.*;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -37,6 +41,10 @@ public class ProfanityUtil {
 
     private int largestWordLength = 0;
 
+    /** Severity to an automaton of every word at or above it */
+    @Getter(AccessLevel.NONE)
+    private volatile TreeMap<Float, AhoCorasick> automata = new TreeMap<>();
+
     private static final ProfanityUtil INSTANCE = new ProfanityUtil();
 
     public static ProfanityUtil getInstance() {
@@ -83,6 +91,7 @@ public class ProfanityUtil {
                             Level.ERROR, "Error while initializing profanity words", e);
                 }
             }
+            buildAutomata();
             AdvancedChatCore.LOGGER.log(
                     Level.INFO, "Loaded " + counter + " words to profanity filter.");
         } catch (URISyntaxException | IOException  e) {
@@ -91,57 +100,62 @@ public class ProfanityUtil {
     }
 
     /**
-     * Iterates over a String input and checks whether a cuss word was found in a list, then checks
-     * if the word should be ignored (e.g. bass contains the word *ss).
+     * Builds an automaton for each severity found in the words. Each one contains every word at or
+     * above that severity so any threshold can be answered by the next highest one.
+     */
+    private void buildAutomata() {
+        TreeMap<Float, AhoCorasick> built = new TreeMap<>();
+        for (Float severity : words.keySet()) {
+            AhoCorasick.Builder builder = AhoCorasick.builder(true);
+            int id = 0;
+            // The same word can be listed under multiple severities
+            for (String word : new LinkedHashSet<>(getAboveSeverity(severity))) {
+                builder.add(word, id++);
+            }
+            built.put(severity, builder.build());
+        }
+        automata = built;
+    }
+
+    /**
+     * Finds every cuss word in the input in a single pass, then checks if the word should be
+     * ignored (e.g. bass contains the word *ss).
      */
     public List<StringMatch> getBadWords(String input, float severity, boolean onlyWordBoundaries) {
         if (input == null) {
             return new ArrayList<>();
         }
-
-        List<StringMatch> badWords = new ArrayList<>();
-        input = input.toLowerCase();
-
-        List<Integer> wordBoundaries;
-        if (onlyWordBoundaries) {
-            wordBoundaries = SearchUtils.findMatches(input, "\\b", FindType.REGEX)
-                    .map(matches -> matches.stream().map(m -> m.start).toList())
-                    .orElseGet(ArrayList::new);
-            if (wordBoundaries.isEmpty()) {
-                return new ArrayList<>();
-            }
-        } else {
-            wordBoundaries = new ArrayList<>();
-        }
-
-        List<String> wordsToFind = getAboveSeverity(severity);
-
-        // iterate over each letter in the word
-        int boundaryIndex = 0;
-        int index = onlyWordBoundaries ? wordBoundaries.getFirst() : 0;
-        while (index < input.length()) {
-            // from each letter, keep going to find bad words until either the end of the sentence
-            // is reached, or the max word length is reached.
-            for (int offset = 1; offset < (input.length() + 1 - index) && offset < largestWordLength; offset++) {
-                String wordToCheck = input.substring(index, index + offset);
-                if (wordsToFind.contains(wordToCheck) && (!onlyWordBoundaries || (wordBoundaries.contains(index + offset)))) {
-                    // for example, if you want to say the word bass, that should be possible.
-                    badWords.add(new StringMatch(wordToCheck, index, index + offset));
-                }
-            }
-            if (onlyWordBoundaries) {
-                boundaryIndex++;
-                if (boundaryIndex >= wordBoundaries.size()) {
-                    break;
-                }
-                index = wordBoundaries.get(boundaryIndex);
-            } else {
-                index++;
-            }
+        Map.Entry<Float, AhoCorasick> entry = automata.ceilingEntry(severity);
+        if (entry == null) {
+            return new ArrayList<>();
         }
+        List<StringMatch> badWords = new ArrayList<>();
+        entry.getValue()
+                .search(
+                        input,
+                        (id, start, end) -> {
+                            // for example, if you want to say the word bass, that should be possible.
+                            if (!onlyWordBoundaries || (isWordBoundary(input, start) && isWordBoundary(input, end))) {
+                                badWords.add(new StringMatch(input.substring(start, end).toLowerCase(), start, end));
+                            }
+                            return true;
+                        });
+        badWords.sort(Comparator.comparingInt((StringMatch match) -> match.start).thenComparingInt(match -> match.end));
         return badWords;
     }
 
+    /** Same as a regex <code>\b</code> */
+    static boolean isWordBoundary(String input, int index) {
+        boolean before = index > 0 && isWordCharacter(input.charAt(index - 1));
+        boolean after = index < input.length() && isWordCharacter(input.charAt(index));
+        return before != after;
+    }
+
+    /** Same as a regex <code>\w</code>, which is only ASCII by default */
+    private static boolean isWordCharacter(char c) {
+        return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
     public List<String> getAboveSeverity(float severity) {
         List<String> list = new ArrayList<>();
         for (Map.Entry<Float, List<String>> entry : words.entrySet()) {
@@ -43,6 +43,6 @@ public record RawText(String content, Style style) implements Text {
     }
 
     public static RawText of(String string, Style style) {
-        return new RawText(string, style);
+        return new RawText(string, StylePool.intern(style));
     }
 }
\ No newline at end of file
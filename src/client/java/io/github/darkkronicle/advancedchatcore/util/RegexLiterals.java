@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pulls plain text out of regular expressions so that inputs can be cheaply ruled out before
+ * running the regex.
+ */
+@UtilityClass
+public class RegexLiterals {
+
+    /** Escapes that match a single character from a class, or nothing, and take no arguments */
+    private final String SIMPLE_ESCAPES = "dDsSwWbBAzZGhHvVRX";
+
+    /**
+     * Finds the longest run of text that has to be in every match of the regex. This is
+     * conservative, anything that isn't easy to reason about (top level alternation, inline flags,
+     * unicode escapes...) returns null.
+     *
+     * @param regex Regex to search
+     * @return Text every match contains, null if none could be determined
+     */
+    @Nullable
+    public String getRequiredLiteral(String regex) {
+        Runs runs = new Runs();
+        int i = 0;
+        int length = regex.length();
+        while (i < length) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '|':
+                    // Top level alternation, nothing is required
+                    return null;
+                case '?':
+                case '*':
+                case '+':
+                case '{':
+                case ')':
+                    // Dangling quantifier or unbalanced group
+                    return null;
+                case '(':
+                    if (i + 2 < length && regex.charAt(i + 1) == '?' && ":<=!>".indexOf(regex.charAt(i + 2)) < 0) {
+                        // Inline flags change how the literals match
+                        return null;
+                    }
+                    runs.end();
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '[':
+                    runs.end();
+                    i = skipClass(regex, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    i = skipQuantifier(regex, i);
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    runs.end();
+                    i = skipQuantifier(regex, i + 1);
+                    break;
+                case '\\':
+                    if (i + 1 >= length) {
+                        return null;
+                    }
+                    char escaped = regex.charAt(i + 1);
+                    if (escaped == 'Q') {
+                        int end = regex.indexOf("\\E", i + 2);
+                        if (end < 0) {
+                            end = length;
+                        }
+                        runs.append(regex.substring(i + 2, end));
+                        i = quantify(regex, Math.min(end + 2, length), runs);
+                        break;
+                    }
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if (SIMPLE_ESCAPES.indexOf(escaped) < 0) {
+                            // Escapes with arguments or back references
+                            return null;
+                        }
+                        runs.end();
+                        i = skipQuantifier(regex, i + 2);
+                        break;
+                    }
+                    runs.append(String.valueOf(escaped));
+                    i = quantify(regex, i + 2, runs);
+                    break;
+                default:
+                    runs.append(String.valueOf(c));
+                    i = quantify(regex, i + 1, runs);
+            }
+        }
+        runs.end();
+        return runs.best.isEmpty() ? null : runs.best;
+    }
+
+    /** Tracks the current run of literal text and the longest one found */
+    private static class Runs {
+
+        private final StringBuilder current = new StringBuilder();
+        private String best = "";
+
+        private void append(String text) {
+            current.append(text);
+        }
+
+        private void dropLast() {
+            if (!current.isEmpty()) {
+                current.setLength(current.length() - 1);
+            }
+        }
+
+        private void end() {
+            if (current.length() > best.length()) {
+                best = current.toString();
+            }
+            current.setLength(0);
+        }
+    }
+
+    /**
+     * Applies a quantifier to the last literal character. Optional characters are removed and any
+     * repetition means whatever comes next isn't directly after the run.
+     */
+    private int quantify(String regex, int i, Runs runs) {
+        if (i >= regex.length()) {
+            return i;
+        }
+        char c = regex.charAt(i);
+        if (c == '?' || c == '*' || c == '{') {
+            runs.dropLast();
+            runs.end();
+            return skipQuantifier(regex, i);
+        }
+        if (c == '+') {
+            runs.end();
+            return skipQuantifier(regex, i);
+        }
+        return i;
+    }
+
+    private int skipQuantifier(String regex, int i) {
+        if (i >= regex.length()) {
+            return i;
+        }
+        char c = regex.charAt(i);
+        if (c == '?' || c == '*' || c == '+') {
+            i++;
+        } else if (c == '{') {
+            int end = regex.indexOf('}', i);
+            i = end < 0 ? regex.length() : end + 1;
+        } else {
+            return i;
+        }
+        // Lazy or possessive
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index after the closing bracket of a class, or -1 if it's never closed. Nested
+     * classes aren't worth handling and also return -1.
+     */
+    private int skipClass(String regex, int i) {
+        i++;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                return -1;
+            }
+            if (c == ']') {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /** Returns the index after the closing parenthesis of a group, or -1 if it's never closed */
+    private int skipGroup(String regex, int i) {
+        int depth = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return -1;
+                    }
+                    i = end + 2;
+                    continue;
+                }
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+}
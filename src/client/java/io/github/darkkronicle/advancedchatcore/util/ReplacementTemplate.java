@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A replacement string that has been split into literal text and group references, such as
+ * <code>$1</code> or <code>${name}</code>. Parsed templates are cached so a replacement that is used
+ * for every match is only parsed once.
+ *
+ * <p>Group 0 is the entire match. References to groups that don't exist are left in the output as
+ * they were written.
+ */
+public class ReplacementTemplate {
+
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<String, ReplacementTemplate> REGEX_CACHE = createCache();
+    private static final Map<String, ReplacementTemplate> PLAIN_CACHE = createCache();
+
+    private sealed interface Segment permits Literal, GroupReference, NamedReference {}
+
+    private record Literal(String text) implements Segment {}
+
+    /** Digits are kept as written since how many are used depends on the amount of groups */
+    private record GroupReference(String digits) implements Segment {}
+
+    private record NamedReference(String name) implements Segment {}
+
+    private final List<Segment> segments;
+
+    /** Set if there are no references */
+    private final String literal;
+
+    private ReplacementTemplate(List<Segment> segments) {
+        this.segments = segments;
+        if (segments.isEmpty()) {
+            literal = "";
+        } else if (segments.size() == 1 && segments.getFirst() instanceof Literal text) {
+            literal = text.text();
+        } else {
+            literal = null;
+        }
+    }
+
+    private static Map<String, ReplacementTemplate> createCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ReplacementTemplate> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Get's a template that follows the same rules as {@link java.util.regex.Matcher#replaceAll(String)}.
+     * <code>\</code> escapes the next character, <code>$</code> followed by digits or
+     * <code>{name}</code> references a group.
+     *
+     * @param template Replacement string
+     * @return Parsed template
+     */
+    public static ReplacementTemplate of(String template) {
+        synchronized (REGEX_CACHE) {
+            return REGEX_CACHE.computeIfAbsent(template, t -> parse(t, true));
+        }
+    }
+
+    /**
+     * Get's a template where only <code>$</code> followed by a single digit is special. Used for
+     * finders that aren't regex based so that backslashes stay as they are.
+     *
+     * @param template Replacement string
+     * @return Parsed template
+     */
+    public static ReplacementTemplate ofPlain(String template) {
+        synchronized (PLAIN_CACHE) {
+            return PLAIN_CACHE.computeIfAbsent(template, t -> parse(t, false));
+        }
+    }
+
+    private static ReplacementTemplate parse(String template, boolean regex) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            if (regex && c == '\\' && i + 1 < template.length()) {
+                text.append(template.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '$' && i + 1 < template.length()) {
+                char next = template.charAt(i + 1);
+                if (regex && next == '{') {
+                    int end = template.indexOf('}', i + 2);
+                    if (end > i + 2) {
+                        flush(segments, text);
+                        segments.add(new NamedReference(template.substring(i + 2, end)));
+                        i = end + 1;
+                        continue;
+                    }
+                } else if (next >= '0' && next <= '9') {
+                    int end = i + 2;
+                    if (regex) {
+                        while (end < template.length() && Character.isDigit(template.charAt(end))) {
+                            end++;
+                        }
+                    }
+                    flush(segments, text);
+                    segments.add(new GroupReference(template.substring(i + 1, end)));
+                    i = end;
+                    continue;
+                }
+            }
+            text.append(c);
+            i++;
+        }
+        flush(segments, text);
+        return new ReplacementTemplate(List.copyOf(segments));
+    }
+
+    private static void flush(List<Segment> segments, StringBuilder text) {
+        if (!text.isEmpty()) {
+            segments.add(new Literal(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    /** If the template doesn't reference any groups */
+    public boolean isLiteral() {
+        return literal != null;
+    }
+
+    /**
+     * Fills in the template with the groups of a match
+     *
+     * @param match Match to take groups from. If it has no {@link CaptureGroups} only group 0
+     *     exists.
+     * @return Filled in string
+     */
+    public String apply(StringMatch match) {
+        if (literal != null) {
+            return literal;
+        }
+        CaptureGroups groups = match.groups;
+        int count = groups == null ? 0 : groups.count();
+        StringBuilder builder = new StringBuilder();
+        for (Segment segment : segments) {
+            if (segment instanceof Literal text) {
+                builder.append(text.text());
+            } else if (segment instanceof GroupReference reference) {
+                String digits = reference.digits();
+                int group = digits.charAt(0) - '0';
+                if (group > count) {
+                    builder.append('$').append(digits);
+                    continue;
+                }
+                // Same as the regex engine, keep taking digits while the group exists
+                int used = 1;
+                while (used < digits.length()) {
+                    int next = group * 10 + (digits.charAt(used) - '0');
+                    if (next > count) {
+                        break;
+                    }
+                    group = next;
+                    used++;
+                }
+                appendGroup(builder, match, group);
+                builder.append(digits, used, digits.length());
+            } else if (segment instanceof NamedReference reference) {
+                int group = groups == null ? -1 : groups.indexOf(reference.name());
+                if (group < 0 || group > count) {
+                    builder.append("${").append(reference.name()).append('}');
+                    continue;
+                }
+                appendGroup(builder, match, group);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendGroup(StringBuilder builder, StringMatch match, int group) {
+        if (group == 0) {
+            builder.append(match.match);
+            return;
+        }
+        String value = match.groups.get(group);
+        if (value != null) {
+            builder.append(value);
+        }
+    }
+}
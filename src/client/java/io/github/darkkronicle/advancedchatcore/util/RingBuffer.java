@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded list where the newest element is at index 0. Adding and evicting the oldest element
+ * are O(1) instead of shifting everything like {@link ArrayList#addFirst(Object)} does.
+ *
+ * <p>Elements are also indexed by a key (such as a message id) so that every element with a key can
+ * be removed without a scan. Removed elements leave a gap that gets compacted once enough of them
+ * build up.
+ *
+ * <p>This is a read only view for anything that isn't one of the methods defined here.
+ *
+ * @param <T> Type of element
+ */
+public class RingBuffer<T> extends AbstractList<T> {
+
+    private static final long NONE = -1;
+
+    private final ToLongFunction<? super T> key;
+
+    /** Maximum amount of elements */
+    @Getter private int limit;
+
+    private Object[] slots;
+
+    /** Sequence of the next older element with the same key */
+    private long[] older;
+
+    /** Sequence of the oldest slot still in use */
+    private long oldest = 0;
+
+    /** Sequence the next element will get */
+    private long next = 0;
+
+    /** Amount of elements, not counting gaps */
+    private int size = 0;
+
+    /** Sequence of the newest element for each key */
+    private final Map<Long, Long> newest = new HashMap<>();
+
+    /**
+     * Creates an empty buffer
+     *
+     * @param limit Maximum amount of elements
+     * @param key Key to index elements by. The key of an element can't change while it is stored.
+     */
+    public RingBuffer(int limit, ToLongFunction<? super T> key) {
+        this.key = key;
+        this.limit = Math.max(limit, 0);
+        int capacity = getCapacity(this.limit);
+        this.slots = new Object[capacity];
+        this.older = new long[capacity];
+    }
+
+    /** Room for the elements plus some gaps, so that compacting is rare */
+    private static int getCapacity(int limit) {
+        return limit + Math.max(16, limit / 4);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % slots.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T at(long sequence) {
+        return (T) slots[slot(sequence)];
+    }
+
+    /**
+     * Adds an element as the newest and evicts the oldest if it goes over the limit.
+     *
+     * @param value Value to add
+     * @return The evicted element, or null if nothing was evicted
+     */
+    @Nullable
+    public T push(T value) {
+        if (limit == 0) {
+            return value;
+        }
+        if (next - oldest == slots.length) {
+            // Only happens when there are gaps since the limit is less than the capacity
+            compact(slots.length);
+        }
+        long sequence = next++;
+        int slot = slot(sequence);
+        slots[slot] = value;
+        Long previous = newest.put(key.applyAsLong(value), sequence);
+        older[slot] = previous == null ? NONE : previous;
+        size++;
+        if (size > limit) {
+            return removeOldest();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the oldest element
+     *
+     * @return Element that was removed, null if empty
+     */
+    @Nullable
+    public T removeOldest() {
+        if (size == 0) {
+            return null;
+        }
+        T value = at(oldest);
+        slots[slot(oldest)] = null;
+        Long sequence = newest.get(key.applyAsLong(value));
+        if (sequence != null && sequence == oldest) {
+            newest.remove(key.applyAsLong(value));
+        }
+        size--;
+        oldest++;
+        skipGaps();
+        return value;
+    }
+
+    /**
+     * Removes every element that has a key
+     *
+     * @param id Key to remove
+     * @return Removed elements, newest first
+     */
+    public List<T> removeAll(long id) {
+        Long start = newest.remove(id);
+        if (start == null) {
+            return List.of();
+        }
+        List<T> removed = new ArrayList<>(1);
+        for (long sequence = start; sequence >= oldest; sequence = older[slot(sequence)]) {
+            int slot = slot(sequence);
+            removed.add(at(sequence));
+            slots[slot] = null;
+            size--;
+        }
+        skipGaps();
+        return removed;
+    }
+
+    /**
+     * Finds where every element with a key is
+     *
+     * @param id Key to search for
+     * @return Indices of the elements, newest first like {@link #removeAll(long)}
+     */
+    public int[] indicesOf(long id) {
+        if (!newest.containsKey(id)) {
+            return new int[0];
+        }
+        if (next - oldest != size) {
+            // Without gaps the index is the distance from the newest sequence
+            compact(slots.length);
+        }
+        int[] indices = new int[1];
+        int count = 0;
+        for (long sequence = newest.get(id); sequence >= oldest; sequence = older[slot(sequence)]) {
+            if (count == indices.length) {
+                indices = Arrays.copyOf(indices, count * 2);
+            }
+            indices[count++] = (int) (next - 1 - sequence);
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Checks if an element with a key is stored
+     *
+     * @param id Key to search for
+     * @return If it was found
+     */
+    public boolean containsKey(long id) {
+        return newest.containsKey(id);
+    }
+
+    /**
+     * Gets the newest element with a key
+     *
+     * @param id Key to search for
+     * @return Element, null if none have the key
+     */
+    @Nullable
+    public T getByKey(long id) {
+        Long sequence = newest.get(id);
+        return sequence == null ? null : at(sequence);
+    }
+
+    /**
+     * Changes the maximum amount of elements
+     *
+     * @param limit New limit
+     * @return Elements that were evicted, newest first
+     */
+    public List<T> setLimit(int limit) {
+        limit = Math.max(limit, 0);
+        List<T> removed = new ArrayList<>();
+        while (size > limit) {
+            removed.addFirst(removeOldest());
+        }
+        this.limit = limit;
+        compact(getCapacity(limit));
+        return removed;
+    }
+
+    private void skipGaps() {
+        while (oldest < next && slots[slot(oldest)] == null) {
+            oldest++;
+        }
+        if (size == 0) {
+            oldest = next;
+        }
+    }
+
+    /** Moves every element next to each other, renumbering them and rebuilding the index */
+    private void compact(int capacity) {
+        Object[] values = new Object[capacity];
+        int count = 0;
+        for (long sequence = oldest; sequence < next; sequence++) {
+            Object value = slots[slot(sequence)];
+            if (value != null) {
+                values[count++] = value;
+            }
+        }
+        slots = values;
+        older = new long[capacity];
+        newest.clear();
+        oldest = 0;
+        next = 0;
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            @SuppressWarnings("unchecked")
+            T value = (T) values[i];
+            long sequence = next++;
+            Long previous = newest.put(key.applyAsLong(value), sequence);
+            older[slot(sequence)] = previous == null ? NONE : previous;
+            size++;
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (next - oldest != size) {
+            compact(slots.length);
+        }
+        return at(next - 1 - index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slots, null);
+        newest.clear();
+        oldest = 0;
+        next = 0;
+        size = 0;
+    }
+
+    /** Iterates from newest to oldest without compacting */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private long sequence = findNext(next - 1);
+
+            private long findNext(long from) {
+                while (from >= oldest && slots[slot(from)] == null) {
+                    from--;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return sequence >= oldest;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T value = at(sequence);
+                sequence = findNext(sequence - 1);
+                return value;
+            }
+        };
+    }
+}
@@ -8,6 +8,7 @@
 package io.github.darkkronicle.advancedchatcore.util;
 
 import io.github.darkkronicle.advancedchatcore.finder.RegexFinder;
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.interfaces.IFinder;
 import lombok.Getter;
 import net.fabricmc.api.EnvType;
@@ -17,8 +18,6 @@ import net.minecraft.text.Text;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /** An object that holds information about a search. */
 @Environment(EnvType.CLIENT)
@@ -57,37 +56,30 @@ public class SearchResult {
     }
 
     /**
-     * Get's a group from the result. This only works if it's a {@link RegexFinder}, otherwise it
-     * returns the entire string.
+     * Get's a group from the result. This only works if the finder recorded capture groups (such as
+     * a {@link RegexFinder}), otherwise it returns the entire match.
      *
      * @param num Group number
-     * @return StringMatch from group. It references the original string.
+     * @return StringMatch from group. It references the original string. Null if the group doesn't
+     *     exist or didn't participate in the match.
      */
     public StringMatch getGroup(StringMatch match, int num) {
         if (!matches.contains(match)) {
             return null;
         }
-        if (!(finder instanceof RegexFinder)) {
-            return match;
+        CaptureGroups groups = match.groups;
+        if (groups == null) {
+            return num == 0 ? match : null;
         }
-        try {
-            RegexFinder regex = (RegexFinder) finder;
-            Pattern p = regex.getPattern(input);
-            if (p == null) {
-                return null;
-            }
-            Matcher matcher = p.matcher(match.match);
-            String group = matcher.group(num);
-            int start = matcher.start(num);
-            int end = matcher.start(num);
-            return new StringMatch(group, start, end);
-        } catch (Exception e) {
+        if (num < 0 || num > groups.count() || groups.get(num) == null) {
             return null;
         }
+        return new StringMatch(groups.get(num), groups.getStart(num), groups.getEnd(num));
     }
 
     /**
-     * Replaces the groups with a specified match
+     * Replaces the groups with a specified match. Groups come from what was recorded when
+     * searching, so the regex is never ran again.
      *
      * @param string Contents to replace to
      * @param matchIndex If it will replace/return only the first group. -1 will return the full
@@ -96,33 +88,28 @@ public class SearchResult {
      *     group.
      */
     public String getGroupReplacements(String string, int matchIndex) {
+        ReplacementTemplate template =
+                finder instanceof RegexFinder
+                        ? ReplacementTemplate.of(string)
+                        : ReplacementTemplate.ofPlain(string);
         if (matchIndex >= 0) {
-            if (finder instanceof RegexFinder regex) {
-                try {
-                    Pattern p = regex.getPattern(search);
-                    if (p != null) {
-                        return
-                                p
-                                        .matcher(matches.get(matchIndex).match)
-                                        .replaceAll(string);
-                    }
-                } catch (Exception e) {
-                    // Didn't work
-                }
+            if (matchIndex >= matches.size()) {
+                return string;
             }
-            return SearchUtils.replaceGroups(Collections.singletonList(matches.getFirst()), string);
+            return template.apply(matches.get(matchIndex));
         }
-        if (finder instanceof RegexFinder regex) {
-            try {
-                Pattern p = regex.getPattern(search);
-                if (p != null) {
-                    return p.matcher(input).replaceAll(string);
-                }
-            } catch (Exception e) {
-                // Did not work
+        StringBuilder builder = new StringBuilder();
+        int last = 0;
+        for (StringMatch match : matches) {
+            if (match.start < last) {
+                // Overlaps with a previous match
+                continue;
             }
+            builder.append(input, last, match.start).append(template.apply(match));
+            last = match.end;
         }
-        return SearchUtils.replaceGroups(matches, string);
+        builder.append(input, last, input.length());
+        return builder.toString();
     }
 
     /**
@@ -152,4 +139,40 @@ public class SearchResult {
         List<StringMatch> matches = finder.getMatches(input, match);
         return new SearchResult(input.getString(), match, finder, matches);
     }
+
+    /**
+     * A method to construct a SearchResult based off of an input and an already compiled matcher
+     *
+     * @param input Input string to match from
+     * @param matcher {@link CompiledMatcher} to search with
+     * @return SearchResult with compiled searches
+     */
+    public static SearchResult searchOf(String input, CompiledMatcher matcher) {
+        return new SearchResult(input, matcher.getExpression(), matcher.getFinder(), matcher.getMatches(input));
+    }
+
+    /**
+     * A method to construct a SearchResult based off of an input and an already compiled matcher
+     *
+     * @param input Input text to match from
+     * @param matcher {@link CompiledMatcher} to search with
+     * @return SearchResult with compiled searches
+     */
+    public static SearchResult searchOf(Text input, CompiledMatcher matcher) {
+        return new SearchResult(
+                input.getString(), matcher.getExpression(), matcher.getFinder(), matcher.getMatches(input));
+    }
+
+    /**
+     * A method to construct a SearchResult based off of an already flattened input and a compiled
+     * matcher
+     *
+     * @param input Flattened input to match from
+     * @param matcher {@link CompiledMatcher} to search with
+     * @return SearchResult with compiled searches
+     */
+    public static SearchResult searchOf(FlatText input, CompiledMatcher matcher) {
+        return new SearchResult(
+                input.getString(), matcher.getExpression(), matcher.getFinder(), matcher.getMatches(input));
+    }
 }
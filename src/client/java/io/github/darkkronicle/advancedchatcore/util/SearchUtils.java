@@ -70,37 +70,29 @@ public class SearchUtils {
     }
 
     /**
-     * Get's replacements for a string and matches following the format $\<number\>
+     * Get's replacements for a string and matches following the format $\<number\>. $1 is the
+     * first match.
      *
      * @param groups Matches that are found, will replace
      * @param input Input with group replacements
      * @return String with replaced groups
      */
     public String replaceGroups(List<StringMatch> groups, String input) {
-        // Checks to make it so we don't always have to regex
+        // Checks to make it so we don't always have to parse
         if (input.length() < 2 || !input.contains("$")) {
             return input;
         }
-        Optional<List<StringMatch>> replace = findMatches(input, "\\$[0-9]", FindType.REGEX);
-        if (replace.isEmpty()) {
+        ReplacementTemplate template = ReplacementTemplate.ofPlain(input);
+        if (template.isLiteral()) {
             return input;
         }
-        // Ensure sort
-        TreeSet<StringMatch> replaceMatches = new TreeSet<>(replace.get());
-        int last = 0;
-        StringBuilder edited = new StringBuilder();
-        for (StringMatch m : replaceMatches) {
-            int digit = Integer.parseInt(m.match.substring(1, 2));
-            if (digit == 0 || digit > groups.size()) {
-                continue;
-            }
-            edited.append(input, last, m.start).append(groups.get(digit));
-            last = m.end;
-        }
-        if (last != input.length()) {
-            edited.append(input.substring(last));
+        // Lay the matches out as groups of a single match
+        String[] values = new String[groups.size() + 1];
+        values[0] = "";
+        for (int i = 0; i < groups.size(); i++) {
+            values[i + 1] = groups.get(i).match;
         }
-        return edited.toString();
+        return template.apply(new StringMatch("", 0, 0, CaptureGroups.of(values)));
     }
 
     /**
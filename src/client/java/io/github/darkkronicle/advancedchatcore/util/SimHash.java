@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * <a href="https://en.wikipedia.org/wiki/SimHash">SimHash</a> fingerprints of strings. Strings
+ * that only differ in a few characters get fingerprints that only differ in a few bits.
+ */
+@UtilityClass
+public class SimHash {
+
+    /** Length of each shingle (overlapping piece of the string) */
+    private final int SHINGLE = 3;
+
+    /**
+     * Fingerprints a string. Case is ignored.
+     *
+     * @param string String to fingerprint
+     * @return 64 bit fingerprint
+     */
+    public long of(String string) {
+        if (string.isEmpty()) {
+            return 0;
+        }
+        int[] votes = new int[64];
+        int shingles = Math.max(1, string.length() - SHINGLE + 1);
+        for (int i = 0; i < shingles; i++) {
+            long hash = hash(string, i, Math.min(string.length(), i + SHINGLE));
+            for (int bit = 0; bit < 64; bit++) {
+                votes[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private long hash(String string, int start, int end) {
+        // FNV-1a over the characters followed by a mixer so that every bit depends on every char
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= Character.toLowerCase(string.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
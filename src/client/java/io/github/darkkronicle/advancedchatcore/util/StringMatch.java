@@ -7,9 +7,9 @@
  */
 package io.github.darkkronicle.advancedchatcore.util;
 
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A class to store data about a match.
@@ -18,7 +18,6 @@ import lombok.ToString;
  */
 @EqualsAndHashCode
 @ToString
-@AllArgsConstructor
 public class StringMatch implements Comparable<StringMatch> {
 
     /** The content that was matched */
@@ -30,6 +29,23 @@ public class StringMatch implements Comparable<StringMatch> {
     /** The index of the end of the match */
     public Integer end;
 
+    /** Capture groups recorded when the match was found, null if the finder doesn't have any */
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    public CaptureGroups groups;
+
+    public StringMatch(String match, Integer start, Integer end) {
+        this(match, start, end, null);
+    }
+
+    public StringMatch(String match, Integer start, Integer end, @Nullable CaptureGroups groups) {
+        this.match = match;
+        this.start = start;
+        this.end = end;
+        this.groups = groups;
+    }
+
     @Override
     public int compareTo(StringMatch o) {
         return start.compareTo(o.start);
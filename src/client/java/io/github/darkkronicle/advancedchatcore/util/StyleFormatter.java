@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Optional;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.util.ChatMessages;
 import net.minecraft.text.*;
@@ -107,7 +108,7 @@ public class StyleFormatter {
                     // Arbitrary color to reset
                     currentStyle = currentStyle.withExclusiveFormatting(Formatting.BLACK);
                 }
-                currentStyle = currentStyle.withColor(color);
+                currentStyle = StylePool.intern(currentStyle.withColor(color));
                 currentIndex += 7;
                 skipBy = 6;
             }
@@ -131,6 +132,7 @@ public class StyleFormatter {
             if (currentStyle.equals(Style.EMPTY)) {
                 currentStyle = textStyle;
             }
+            currentStyle = StylePool.intern(currentStyle);
         }
         currentIndex++;
         return Result.INCREMENT;
@@ -147,6 +149,7 @@ public class StyleFormatter {
      * @return Value to terminate. Follows {@link StringVisitable.StyledVisitor} return values.
      */
     public Optional<Optional<Unit>> updateStyle(Style textStyle, String string) {
+        textStyle = StylePool.intern(textStyle);
         if (lastTextStyle == null) {
             lastTextStyle = textStyle;
         }
@@ -190,12 +193,15 @@ public class StyleFormatter {
      * @return Formatted text
      */
     public static MutableText formatText(Text text) {
+        if (!needsFormatting(text.getString())) {
+            return Text.empty().append(text);
+        }
         MutableText t = Text.empty();
         int length = text.getString().length();
         StyleFormatter formatter =
                 new StyleFormatter(
                         (c, index, formattedIndex, style, formattedStyle) -> {
-                            t.append(Text.literal(String.valueOf(c)).fillStyle(formattedStyle));
+                            t.append(Text.literal(String.valueOf(c)).setStyle(formattedStyle));
                             return true;
                         },
                         length);
@@ -203,20 +209,123 @@ public class StyleFormatter {
         return flattenText(t);
     }
 
+    /**
+     * Checks if a string has anything that {@link #formatText(Text)} would change. Hex colors start
+     * with a section symbol too, so this is one scan for it.
+     *
+     * @param string String to check
+     * @return If the string contains a section symbol
+     */
+    public static boolean needsFormatting(String string) {
+        return string.indexOf('§') >= 0;
+    }
+
+    /**
+     * Formats section symbols the same way as {@link #formatText(Text)}, but only does the work
+     * that's needed. Text without any section symbols is returned as is. Otherwise the text is
+     * visited part by part like {@link #formatText(Text)} does, only the parts that contain a
+     * section symbol are formatted and the rest are copied over. Formatting only applies to the
+     * rest of its own part, so the parts have to stay the same as the text's even if neighbouring
+     * ones have the same style.
+     *
+     * <p>This is meant for text that gets formatted again after each change, such as after every
+     * filter that replaces part of a message. Each call is counted in the {@link PipelineProfiler}
+     * as skipped, partial or full, so only the message pipeline should use it.
+     *
+     * @param text Text to format
+     * @return Formatted text, the same object if nothing needed to change
+     */
+    public static Text format(Text text) {
+        int[] parts = new int[2];
+        Text formatted = format(text, parts);
+        String result;
+        if (parts[0] == 0) {
+            result = "skipped";
+        } else {
+            result = parts[0] == parts[1] ? "full" : "partial";
+        }
+        PipelineProfiler.getInstance().count("format", result);
+        return formatted;
+    }
+
+    /**
+     * Does the work of {@link #format(Text)}
+     *
+     * @param text Text to format
+     * @param parts Set to the amount of parts formatted and the amount of parts
+     * @return Formatted text, the same object if nothing needed to change
+     */
+    static Text format(Text text, int[] parts) {
+        String string = text.getString();
+        if (!needsFormatting(string)) {
+            return text;
+        }
+        StyledString.Builder builder = new StyledString.Builder();
+        RunWriter writer = new RunWriter(builder);
+        StyleFormatter formatter = new StyleFormatter(writer, string.length());
+        text.visit(
+                (style, part) -> {
+                    parts[1]++;
+                    if (!needsFormatting(part)) {
+                        builder.append(part, style);
+                        return Optional.empty();
+                    }
+                    formatter.updateStyle(style, part);
+                    writer.flush();
+                    parts[0]++;
+                    return Optional.empty();
+                },
+                Style.EMPTY);
+        return builder.build();
+    }
+
+    /** Collects formatted characters into runs instead of one text per character */
+    private static class RunWriter implements FormattingVisitable {
+
+        private final StyledString.Builder builder;
+
+        private final StringBuilder run = new StringBuilder();
+
+        private Style style = null;
+
+        private RunWriter(StyledString.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public boolean accept(char c, int currentIndex, int realIndex, Style textStyle, Style formattingStyle) {
+            // Styles coming out of the formatter are interned
+            if (formattingStyle != style) {
+                flush();
+                style = formattingStyle;
+            }
+            run.append(c);
+            return true;
+        }
+
+        private void flush() {
+            if (run.length() > 0) {
+                builder.append(run.toString(), style);
+                run.setLength(0);
+            }
+        }
+    }
+
     public static MutableText flattenText(Text text) {
         List<Text> newSiblings = new ArrayList<>();
-        Style last = text.getStyle();
+        Style last = StylePool.intern(text.getStyle());
         StringBuilder content = new StringBuilder(TextUtil.getContent(text.getContent()));
         for (Text t : text.getSiblings()) {
-            if (t.getStyle().equals(last)) {
+            Style style = StylePool.intern(t.getStyle());
+            if (style == last) {
                 content.append(TextUtil.getContent(t.getContent()));
                 continue;
             }
-            newSiblings.add(Text.literal(content.toString()).fillStyle(last));
+            newSiblings.add(Text.literal(content.toString()).setStyle(last));
             content = new StringBuilder(TextUtil.getContent(t.getContent()));
-            last = t.getStyle();
+            last = style;
         }
-        newSiblings.add(Text.literal(content.toString()).fillStyle(last));
+        newSiblings.add(Text.literal(content.toString()).setStyle(last));
         MutableText newText = Text.empty();
         for (Text sibling : newSiblings) {
             newText.append(sibling);
@@ -233,9 +342,65 @@ public class StyleFormatter {
      * @return List of MutableText of the new lines
      */
     public static List<Text> wrapText(TextRenderer textRenderer, int scaledWidth, Text text) {
+        if (text instanceof StyledString styled) {
+            return wrapText(textRenderer, scaledWidth, styled);
+        }
         ArrayList<Text> lines = new ArrayList<>();
+        // One builder for every line so its buffer gets reused
+        TextBuilder builder = new TextBuilder();
         for (OrderedText breakRenderedChatMessageLine : ChatMessages.breakRenderedChatMessageLines(text, scaledWidth, textRenderer)) {
-            lines.add(new TextBuilder().append(breakRenderedChatMessageLine).build());
+            lines.add(builder.append(breakRenderedChatMessageLine).buildStyled());
+            builder.clear();
+        }
+        return lines;
+    }
+
+    /**
+     * Wraps a styled string into multiple lines. The runs are split up where the lines break
+     * without going through {@link OrderedText} one character at a time. Lines come out the same as
+     * {@link ChatMessages#breakRenderedChatMessageLines(StringVisitable, int, TextRenderer)}, except
+     * that formatting symbols stay in the string instead of being turned into styles, which renders
+     * the same.
+     *
+     * @param textRenderer TextRenderer to handle text
+     * @param scaledWidth Maximum width before the line breaks
+     * @param text Styled string to break up
+     * @return List of the new lines
+     */
+    public static List<Text> wrapText(TextRenderer textRenderer, int scaledWidth, StyledString text) {
+        StringVisitable visitable = text;
+        if (!MinecraftClient.getInstance().options.getChatColors().getValue()) {
+            // Same as the chat hud, strip formatting symbols if chat colors are off
+            StyledString.Builder stripped = new StyledString.Builder();
+            for (int run = 0; run < text.getRunCount(); run++) {
+                String part = text.getString().substring(text.getRunStart(run), text.getRunEnd(run));
+                stripped.append(Formatting.strip(part), text.getRunStyle(run));
+            }
+            visitable = stripped.build();
+        }
+        List<Text> lines = new ArrayList<>();
+        textRenderer
+                .getTextHandler()
+                .wrapLines(
+                        visitable,
+                        scaledWidth,
+                        Style.EMPTY,
+                        (line, continued) -> {
+                            StyledString.Builder builder = new StyledString.Builder();
+                            if (continued) {
+                                // Indent like the chat hud
+                                builder.append(" ", Style.EMPTY);
+                            }
+                            line.visit(
+                                    (style, string) -> {
+                                        builder.append(string, style);
+                                        return Optional.empty();
+                                    },
+                                    Style.EMPTY);
+                            lines.add(builder.build());
+                        });
+        if (lines.isEmpty()) {
+            lines.add(StyledString.EMPTY);
         }
         return lines;
     }
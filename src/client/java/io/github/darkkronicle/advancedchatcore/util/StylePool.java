@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.experimental.UtilityClass;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.Style;
+
+/**
+ * One shared object for each distinct {@link Style}. A server only uses a few dozen styles, but
+ * every text that is built creates its own copies. {@link Style#equals(Object)} compares color,
+ * formatting, click and hover events and so on by value, so equal styles become the same object and
+ * styles that came out of the pool can be compared with {@code ==}. Once the pool is full, new
+ * styles don't come out shared, which only means that parts with them aren't merged.
+ *
+ * <p>Styles with a click or hover event aren't pooled. Those are usually unique to a message (reply
+ * commands, links, tooltips) and would keep their hover text alive after the message is gone. The
+ * pool is cleared when disconnecting, since styles are mostly specific to a server.
+ *
+ * <p>This can be used from any thread.
+ */
+@UtilityClass
+@Environment(EnvType.CLIENT)
+public class StylePool {
+
+    /** Past this many styles new ones aren't pooled, so that the pool can't grow forever */
+    private final int MAX_STYLES = 4096;
+
+    private final ConcurrentHashMap<Style, Style> POOL = new ConcurrentHashMap<>();
+
+    /**
+     * Get's the shared style equal to a style
+     *
+     * @param style Style to intern, null is treated as {@link Style#EMPTY}
+     * @return Shared style, or the same style if it has events or the pool is full
+     */
+    public Style intern(Style style) {
+        if (style == null || style.equals(Style.EMPTY)) {
+            return Style.EMPTY;
+        }
+        if (style.getClickEvent() != null || style.getHoverEvent() != null) {
+            return style;
+        }
+        Style pooled = POOL.get(style);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (POOL.size() >= MAX_STYLES) {
+            return style;
+        }
+        pooled = POOL.putIfAbsent(style, style);
+        return pooled == null ? style : pooled;
+    }
+
+    /** Removes every pooled style. Styles that came out of the pool before stay usable. */
+    public void clear() {
+        POOL.clear();
+    }
+
+    /** Amount of styles pooled */
+    public int size() {
+        return POOL.size();
+    }
+
+    /** Maximum amount of styles that get pooled */
+    public int getMaxSize() {
+        return MAX_STYLES;
+    }
+
+    /**
+     * Estimates how many bytes the pooled styles keep alive
+     *
+     * @return Estimated bytes
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Style style : POOL.values()) {
+            bytes += 16 + MemoryEstimate.of(style);
+        }
+        return bytes;
+    }
+}
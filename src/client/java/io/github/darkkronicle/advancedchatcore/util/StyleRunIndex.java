@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextColor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The styles of a {@link Text} laid out as runs over its string. Adjacent parts with the same style
+ * are merged and each run has its formatting stored as bit flags, so questions like "is this range
+ * all bold" are a binary search and a short scan instead of splitting the text.
+ */
+@Environment(EnvType.CLIENT)
+public class StyleRunIndex {
+
+    public static final int BOLD = 1;
+    public static final int ITALIC = 1 << 1;
+    public static final int OBFUSCATED = 1 << 2;
+    public static final int UNDERLINED = 1 << 3;
+    public static final int STRIKETHROUGH = 1 << 4;
+    public static final int OPEN_URL = 1 << 5;
+    public static final int COPY_TO_CLIPBOARD = 1 << 6;
+    public static final int OPEN_FILE = 1 << 7;
+    public static final int RUN_COMMAND = 1 << 8;
+    public static final int SUGGEST_COMMAND = 1 << 9;
+    public static final int HOVER = 1 << 10;
+
+    /** The plain string of the text */
+    @Getter private final String string;
+
+    /** Index each run starts at, sorted */
+    private final int[] starts;
+
+    private final Style[] styles;
+
+    private final int[] flags;
+
+    private StyleRunIndex(String string, int[] starts, Style[] styles, int[] flags) {
+        this.string = string;
+        this.starts = starts;
+        this.styles = styles;
+        this.flags = flags;
+    }
+
+    /**
+     * Builds the index for a text
+     *
+     * @param text Text to index
+     * @return Built index
+     */
+    public static StyleRunIndex of(Text text) {
+        if (text instanceof StyledString styled) {
+            return of(styled);
+        }
+        StringBuilder string = new StringBuilder();
+        List<Integer> starts = new ArrayList<>();
+        List<Style> styles = new ArrayList<>();
+        text.visit(
+                (style, asString) -> {
+                    if (asString.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    if (styles.isEmpty() || !styles.getLast().equals(style)) {
+                        starts.add(string.length());
+                        styles.add(style);
+                    }
+                    string.append(asString);
+                    return Optional.empty();
+                },
+                Style.EMPTY);
+        int[] startArray = new int[starts.size()];
+        int[] flagArray = new int[starts.size()];
+        for (int i = 0; i < startArray.length; i++) {
+            startArray[i] = starts.get(i);
+            flagArray[i] = getFlags(styles.get(i));
+        }
+        return new StyleRunIndex(string.toString(), startArray, styles.toArray(new Style[0]), flagArray);
+    }
+
+    /**
+     * Builds the index for a styled string. The runs are already merged so nothing is walked.
+     *
+     * @param styled Styled string to index
+     * @return Built index
+     */
+    public static StyleRunIndex of(StyledString styled) {
+        int runs = styled.getRunCount();
+        int[] starts = new int[runs];
+        Style[] styles = new Style[runs];
+        int[] flags = new int[runs];
+        for (int i = 0; i < runs; i++) {
+            starts[i] = styled.getRunStart(i);
+            styles[i] = styled.getRunStyle(i);
+            flags[i] = getFlags(styles[i]);
+        }
+        return new StyleRunIndex(styled.getString(), starts, styles, flags);
+    }
+
+    private static int getFlags(Style style) {
+        int value = 0;
+        if (style.isBold()) {
+            value |= BOLD;
+        }
+        if (style.isItalic()) {
+            value |= ITALIC;
+        }
+        if (style.isObfuscated()) {
+            value |= OBFUSCATED;
+        }
+        if (style.isUnderlined()) {
+            value |= UNDERLINED;
+        }
+        if (style.isStrikethrough()) {
+            value |= STRIKETHROUGH;
+        }
+        if (style.getHoverEvent() != null) {
+            value |= HOVER;
+        }
+        ClickEvent click = style.getClickEvent();
+        if (click != null) {
+            value |=
+                    switch (click.getAction()) {
+                        case OPEN_URL -> OPEN_URL;
+                        case COPY_TO_CLIPBOARD -> COPY_TO_CLIPBOARD;
+                        case OPEN_FILE -> OPEN_FILE;
+                        case RUN_COMMAND -> RUN_COMMAND;
+                        case SUGGEST_COMMAND -> SUGGEST_COMMAND;
+                        default -> 0;
+                    };
+        }
+        return value;
+    }
+
+    /** Amount of runs */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Finds the run that contains a character
+     *
+     * @param index Index of the character
+     * @return Index of the run, -1 if there are no runs
+     */
+    public int getRun(int index) {
+        int found = Arrays.binarySearch(starts, index);
+        if (found >= 0) {
+            return found;
+        }
+        // Insertion point minus one is the run that started before
+        return -found - 2;
+    }
+
+    public int getRunStart(int run) {
+        return starts[run];
+    }
+
+    public int getRunEnd(int run) {
+        return run + 1 < starts.length ? starts[run + 1] : string.length();
+    }
+
+    public Style getStyle(int run) {
+        return styles[run];
+    }
+
+    /**
+     * Checks if every character in a range has all the flags
+     *
+     * @param start Start of the range (inclusive)
+     * @param end End of the range (exclusive)
+     * @param flag Flags that have to be set, such as {@link #BOLD}
+     * @return If every run overlapping the range has the flags
+     */
+    public boolean allHave(int start, int end, int flag) {
+        if (start >= end || starts.length == 0) {
+            return true;
+        }
+        for (int run = Math.max(getRun(start), 0); run < starts.length && starts[run] < end; run++) {
+            if ((flags[run] & flag) != flag) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if every character in a range has the same color
+     *
+     * @param start Start of the range (inclusive)
+     * @param end End of the range (exclusive)
+     * @return If the color never changes
+     */
+    public boolean isSameColor(int start, int end) {
+        if (start >= end || starts.length == 0) {
+            return true;
+        }
+        int first = Math.max(getRun(start), 0);
+        TextColor color = styles[first].getColor();
+        for (int run = first + 1; run < starts.length && starts[run] < end; run++) {
+            if (!Objects.equals(color, styles[run].getColor())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get's the color of a character
+     *
+     * @param index Index of the character
+     * @return Color, null if there is none
+     */
+    @Nullable
+    public TextColor getColor(int index) {
+        if (starts.length == 0) {
+            return null;
+        }
+        return styles[Math.max(getRun(index), 0)].getColor();
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.PlainTextContent;
+import net.minecraft.text.StringVisitable;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextContent;
+import net.minecraft.util.Language;
+
+/**
+ * An immutable styled string. It's one {@link String} with the end and {@link Style} of each run,
+ * instead of a tree of texts with a list of siblings each. Styles come from the {@link StylePool},
+ * so runs share them with every other text.
+ *
+ * <p>This is a {@link Text} so it can be rendered, wrapped and searched like any other. Its
+ * siblings are created when asked for, one {@link RawText} per run, so code that walks siblings
+ * still works but visiting it directly is cheaper.
+ */
+@Environment(EnvType.CLIENT)
+public final class StyledString implements Text {
+
+    public static final StyledString EMPTY = new StyledString("", new int[0], new Style[0]);
+
+    private final String string;
+
+    /** Index each run ends at (exclusive), the last one is the length of {@link #string} */
+    private final int[] ends;
+
+    /** Style of each run */
+    private final Style[] styles;
+
+    private StyledString(String string, int[] ends, Style[] styles) {
+        this.string = string;
+        this.ends = ends;
+        this.styles = styles;
+    }
+
+    /** Creates a styled string from runs that are already known to be valid */
+    static StyledString ofRuns(String string, int[] ends, Style[] styles) {
+        return ends.length == 0 ? EMPTY : new StyledString(string, ends, styles);
+    }
+
+    /**
+     * Flattens a text
+     *
+     * @param text Text to flatten
+     * @return Styled string, the same object if it already is one
+     */
+    public static StyledString of(Text text) {
+        if (text instanceof StyledString styled) {
+            return styled;
+        }
+        return new Builder().append(text).build();
+    }
+
+    /**
+     * Creates a styled string with one style
+     *
+     * @param string Content
+     * @param style Style of all of it
+     * @return Styled string
+     */
+    public static StyledString of(String string, Style style) {
+        if (string.isEmpty()) {
+            return EMPTY;
+        }
+        return new StyledString(string, new int[] {string.length()}, new Style[] {StylePool.intern(style)});
+    }
+
+    /**
+     * Builds a {@link StyledString} from parts, merging parts next to each other with the same
+     * style. Parts with a formatting symbol are never merged, since the symbol only applies to the
+     * rest of its own part.
+     */
+    public static class Builder {
+
+        private final StringBuilder string = new StringBuilder();
+
+        private int[] ends = new int[8];
+
+        private Style[] styles = new Style[8];
+
+        private int runs = 0;
+
+        /** If the last run has a formatting symbol */
+        private boolean lastFormatted = false;
+
+        /**
+         * Appends a part
+         *
+         * @param content String to append
+         * @param style Style of the string
+         * @return This builder
+         */
+        public Builder append(String content, Style style) {
+            if (content.isEmpty()) {
+                return this;
+            }
+            return add(content, StylePool.intern(style));
+        }
+
+        /**
+         * Appends every part of a text
+         *
+         * @param text Text to append
+         * @return This builder
+         */
+        public Builder append(Text text) {
+            if (text instanceof StyledString styled) {
+                return append(styled);
+            }
+            text.visit(
+                    (style, asString) -> {
+                        append(asString, style);
+                        return Optional.empty();
+                    },
+                    Style.EMPTY);
+            return this;
+        }
+
+        /**
+         * Appends all of a styled string
+         *
+         * @param styled Styled string to append
+         * @return This builder
+         */
+        public Builder append(StyledString styled) {
+            return append(styled, 0, styled.length());
+        }
+
+        /**
+         * Appends part of a styled string
+         *
+         * @param styled Styled string to append from
+         * @param start Start of the part (inclusive)
+         * @param end End of the part (exclusive)
+         * @return This builder
+         */
+        public Builder append(StyledString styled, int start, int end) {
+            if (start >= end) {
+                return this;
+            }
+            for (int run = styled.getRun(start); run < styled.ends.length && styled.getRunStart(run) < end; run++) {
+                int from = Math.max(start, styled.getRunStart(run));
+                int to = Math.min(end, styled.ends[run]);
+                add(styled.string.substring(from, to), styled.styles[run]);
+            }
+            return this;
+        }
+
+        private Builder add(String content, Style style) {
+            string.append(content);
+            boolean formatted = content.indexOf('§') >= 0;
+            // Pooled styles are the same object, but the pool can be full
+            if (runs > 0
+                    && !formatted
+                    && !lastFormatted
+                    && (styles[runs - 1] == style || styles[runs - 1].equals(style))) {
+                ends[runs - 1] = string.length();
+                return this;
+            }
+            lastFormatted = formatted;
+            if (runs == ends.length) {
+                ends = Arrays.copyOf(ends, runs * 2);
+                styles = Arrays.copyOf(styles, runs * 2);
+            }
+            ends[runs] = string.length();
+            styles[runs] = style;
+            runs++;
+            return this;
+        }
+
+        public StyledString build() {
+            if (runs == 0) {
+                return EMPTY;
+            }
+            return new StyledString(string.toString(), Arrays.copyOf(ends, runs), Arrays.copyOf(styles, runs));
+        }
+    }
+
+    public int length() {
+        return string.length();
+    }
+
+    public boolean isEmpty() {
+        return string.isEmpty();
+    }
+
+    /** Amount of style runs */
+    public int getRunCount() {
+        return ends.length;
+    }
+
+    /**
+     * Finds the run that contains a character
+     *
+     * @param index Index of the character
+     * @return Index of the run, the last run if the index is past the end
+     */
+    public int getRun(int index) {
+        int found = Arrays.binarySearch(ends, index);
+        // A run ending at the index means the character is in the next one
+        int run = found >= 0 ? found + 1 : -found - 1;
+        return Math.min(run, ends.length - 1);
+    }
+
+    public int getRunStart(int run) {
+        return run == 0 ? 0 : ends[run - 1];
+    }
+
+    public int getRunEnd(int run) {
+        return ends[run];
+    }
+
+    public Style getRunStyle(int run) {
+        return styles[run];
+    }
+
+    /**
+     * Get's the style of a character
+     *
+     * @param index Index of the character
+     * @return Style, {@link Style#EMPTY} if this is empty
+     */
+    public Style getStyleAt(int index) {
+        if (ends.length == 0) {
+            return Style.EMPTY;
+        }
+        return getRunStyle(getRun(index));
+    }
+
+    /**
+     * Cuts out part of the string along with its styles. Finding the first run is a binary search,
+     * so this only costs as much as the runs that are in the range.
+     *
+     * @param start Start index (inclusive)
+     * @param end End index (exclusive)
+     * @return Styled part
+     */
+    public StyledString substring(int start, int end) {
+        if (start < 0 || end > string.length() || start > end) {
+            throw new IndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + string.length());
+        }
+        if (start == 0 && end == string.length()) {
+            return this;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        int first = getRun(start);
+        int last = getRun(end - 1);
+        int[] newEnds = new int[last - first + 1];
+        for (int run = first; run <= last; run++) {
+            newEnds[run - first] = Math.min(ends[run], end) - start;
+        }
+        return new StyledString(string.substring(start, end), newEnds, Arrays.copyOfRange(styles, first, last + 1));
+    }
+
+    /**
+     * Estimates how many bytes this keeps alive, including the styles it uses
+     *
+     * @return Estimated bytes
+     */
+    public long getEstimatedBytes() {
+        return 48 + MemoryEstimate.of(string) + 4L * ends.length + MemoryEstimate.of(styles);
+    }
+
+    @Override
+    public Style getStyle() {
+        return Style.EMPTY;
+    }
+
+    @Override
+    public TextContent getContent() {
+        return PlainTextContent.EMPTY;
+    }
+
+    @Override
+    public String getString() {
+        return string;
+    }
+
+    /**
+     * Get's every run as its own part
+     *
+     * @return New list with one {@link RawText} per run
+     */
+    public List<RawText> getRuns() {
+        List<RawText> runs = new ArrayList<>(ends.length);
+        for (int run = 0; run < ends.length; run++) {
+            runs.add(RawText.of(string.substring(getRunStart(run), ends[run]), getRunStyle(run)));
+        }
+        return runs;
+    }
+
+    /**
+     * Runs as texts. This is a new list each time, so changing it doesn't change this. Use {@link
+     * #copy()} or {@link Builder} to get a text that can be changed.
+     */
+    @Override
+    public List<Text> getSiblings() {
+        return new ArrayList<>(getRuns());
+    }
+
+    @Override
+    public <T> Optional<T> visit(StringVisitable.StyledVisitor<T> visitor, Style style) {
+        for (int run = 0; run < ends.length; run++) {
+            Optional<T> result =
+                    visitor.accept(getRunStyle(run).withParent(style), string.substring(getRunStart(run), ends[run]));
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public <T> Optional<T> visit(StringVisitable.Visitor<T> visitor) {
+        return string.isEmpty() ? Optional.empty() : visitor.accept(string);
+    }
+
+    @Override
+    public OrderedText asOrderedText() {
+        return Language.getInstance().reorder(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StyledString other)) {
+            return false;
+        }
+        return string.equals(other.string) && Arrays.equals(ends, other.ends) && Arrays.equals(styles, other.styles);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * string.hashCode() + Arrays.hashCode(styles);
+    }
+
+    @Override
+    public String toString() {
+        return "StyledString{" + string + ", runs=" + ends.length + '}';
+    }
+}
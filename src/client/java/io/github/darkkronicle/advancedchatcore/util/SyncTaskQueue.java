@@ -15,7 +15,10 @@ import org.jetbrains.annotations.NotNull;
 // Referenced
 // https://github.com/vacla/Watson/blob/fabric_1.16.2/src/main/java/eu/minemania/watson/scheduler/SyncTaskQueue.java
 
-/** A queue to handle delayed tasks in ticks. */
+/**
+ * A queue to handle delayed tasks in ticks. Tasks can be added from any thread, they are always ran
+ * on the client thread.
+ */
 public class SyncTaskQueue {
 
     private static final SyncTaskQueue INSTANCE = new SyncTaskQueue();
@@ -24,7 +27,10 @@ public class SyncTaskQueue {
         return INSTANCE;
     }
 
-    private int lastTick = 0;
+    private volatile int lastTick = 0;
+
+    /** Keeps tasks for the same tick in the order they were added */
+    private long added = 0;
 
     /** A task that contains a time to trigger and a {@link Runnable} for when it should happen. */
     @Value
@@ -40,12 +46,19 @@ public class SyncTaskQueue {
         /** {@link Runnable} to run when the task is called. */
         Runnable task;
 
+        /** Position the task was added in */
+        long order;
+
         @Override
         public int compareTo(@NotNull SyncTaskQueue.QueuedTask o) {
             // Compares when it should happen. Used to ensure that the first in the stack is what
             // needs to
             // happen.
-            return Integer.compare(tick, o.tick);
+            int compare = Integer.compare(tick, o.tick);
+            if (compare != 0) {
+                return compare;
+            }
+            return Long.compare(order, o.order);
         }
     }
 
@@ -58,8 +71,8 @@ public class SyncTaskQueue {
      * @param after Delay in ticks
      * @param runnable What to run when it should be called
      */
-    public void add(int after, Runnable runnable) {
-        queue.add(new QueuedTask(lastTick + after, runnable));
+    public synchronized void add(int after, Runnable runnable) {
+        queue.add(new QueuedTask(lastTick + after, runnable, added++));
     }
 
     /**
@@ -69,17 +82,18 @@ public class SyncTaskQueue {
      */
     public void update(int tick) {
         lastTick = tick;
-        if (queue.isEmpty()) {
-            return;
-        }
-        QueuedTask task = queue.first();
-        while (task != null && task.tick <= lastTick) {
+        QueuedTask task = poll();
+        while (task != null) {
+            // Ran outside the lock so tasks can queue more tasks
             task.task.run();
-            queue.pollFirst();
-            if (queue.isEmpty()) {
-                break;
-            }
-            task = queue.first();
+            task = poll();
+        }
+    }
+
+    private synchronized QueuedTask poll() {
+        if (queue.isEmpty() || queue.first().tick > lastTick) {
+            return null;
         }
+        return queue.pollFirst();
     }
 }
@@ -5,7 +5,6 @@ import net.minecraft.text.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class TextBuilder {
 
@@ -25,58 +24,88 @@ public class TextBuilder {
         return siblings;
     }
 
+    /** Removes every part so that the builder and its buffers can be reused */
+    public TextBuilder clear() {
+        siblings.clear();
+        endRun();
+        return this;
+    }
+
+    /** Characters of the run being collected, reused between runs */
+    private final StringBuilder run = new StringBuilder();
+
+    /** Pooled style of the run being collected */
+    private Style runStyle = null;
+
+    /** The last style that was given, so that a style repeated per character is only pooled once */
+    private Style lastGiven = null;
+
     public TextBuilder append(OrderedText text) {
-        AtomicReference<Style> last = new AtomicReference<>(null);
-        AtomicReference<StringBuilder> builder = new AtomicReference<>(new StringBuilder());
         text.accept((index, style, codePoint) -> {
-            if (last.get() == null) {
-                last.set(style);
-                builder.get().append(Character.toChars(codePoint));
-                return true;
-            } else if (last.get().equals(style)) {
-                builder.get().append(Character.toChars(codePoint));
-                return true;
-            }
-            append(builder.get().toString(), last.get());
-            last.set(style);
-            builder.set(new StringBuilder().append(Character.toChars(codePoint)));
+            collect(style);
+            run.appendCodePoint(codePoint);
             return true;
         });
-        if (!builder.get().isEmpty()) {
-            append(builder.get().toString(), last.get());
-        }
+        endRun();
         return this;
     }
 
     public TextBuilder append(Text text) {
-        AtomicReference<Style> last = new AtomicReference<>(null);
-        AtomicReference<StringBuilder> builder = new AtomicReference<>(new StringBuilder());
         text.visit((style, asString) -> {
-            if (last.get() == null) {
-                last.set(style);
-                builder.get().append(asString);
-                return Optional.empty();
-            } else if (last.get().equals(style)) {
-                builder.get().append(asString);
-                return Optional.empty();
-            }
-            append(builder.get().toString(), last.get());
-            last.set(style);
-            builder.set(new StringBuilder(asString));
+            collect(style);
+            run.append(asString);
             return Optional.empty();
         }, Style.EMPTY);
-        if (!builder.get().isEmpty()) {
-            append(builder.get().toString(), last.get());
-        }
+        endRun();
         return this;
     }
 
+    /** Starts a new run if the style changed. Styles are pooled so they're compared by identity. */
+    private void collect(Style style) {
+        if (style == lastGiven) {
+            return;
+        }
+        lastGiven = style;
+        Style pooled = StylePool.intern(style);
+        if (pooled == runStyle) {
+            return;
+        }
+        if (!run.isEmpty()) {
+            siblings.add(RawText.of(run.toString(), runStyle));
+            run.setLength(0);
+        }
+        runStyle = pooled;
+    }
+
+    private void endRun() {
+        if (!run.isEmpty()) {
+            siblings.add(RawText.of(run.toString(), runStyle));
+            run.setLength(0);
+        }
+        runStyle = null;
+        lastGiven = null;
+    }
+
     public MutableText build() {
         MutableText newText = Text.empty();
         for (RawText sib : siblings) {
-            newText.append(Text.literal(sib.content()).fillStyle(sib.style()));
+            // Styles are already pooled, so they're set as is instead of merged into a new one
+            newText.append(Text.literal(sib.content()).setStyle(sib.style()));
         }
         return newText;
     }
 
+    /**
+     * Builds a {@link StyledString} instead of a tree of texts
+     *
+     * @return Styled string of every part
+     */
+    public StyledString buildStyled() {
+        StyledString.Builder builder = new StyledString.Builder();
+        for (RawText sib : siblings) {
+            builder.append(sib.content(), sib.style());
+        }
+        return builder.build();
+    }
+
 }
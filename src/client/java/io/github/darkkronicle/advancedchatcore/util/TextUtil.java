@@ -74,6 +74,63 @@ public class TextUtil {
         return costs[s2.length()];
     }
 
+    /**
+     * Calculates the edit distance between two strings, but gives up once it is larger than a
+     * maximum. Only the diagonal band of width {@code 2 * max + 1} is computed so this is {@code
+     * O(length * max)} instead of {@code O(length^2)}. Like {@link #editDistance(String, String)}
+     * and {@link SimHash} this ignores case.
+     *
+     * @param s1 First string
+     * @param s2 Second string
+     * @param max Largest distance that matters
+     * @return Edit distance, or {@code max + 1} if it is larger than max
+     */
+    public int editDistance(String s1, String s2, int max) {
+        if (Math.abs(s1.length() - s2.length()) > max) {
+            return max + 1;
+        }
+        if (s1.length() > s2.length()) {
+            String swap = s1;
+            s1 = s2;
+            s2 = swap;
+        }
+        int over = max + 1;
+        int[] previous = new int[s2.length() + 1];
+        int[] current = new int[s2.length() + 1];
+        for (int j = 0; j <= s2.length(); j++) {
+            previous[j] = j <= max ? j : over;
+        }
+        for (int i = 1; i <= s1.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(s2.length(), i + max);
+            current[0] = i <= max ? i : over;
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+            int best = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost =
+                        Character.toLowerCase(s1.charAt(i - 1))
+                                        == Character.toLowerCase(s2.charAt(j - 1))
+                                ? 0
+                                : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, over);
+                best = Math.min(best, current[j]);
+            }
+            if (to < s2.length()) {
+                current[to + 1] = over;
+            }
+            if (best > max) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[s2.length()];
+    }
+
     /** Get's a superscript from a number */
     public String toSuperscript(int num) {
         StringBuilder sb = new StringBuilder();
@@ -114,183 +171,133 @@ public class TextUtil {
         return max;
     }
 
-    private TreeMap<StringMatch, StringInsert> filterMatches(
-            Map<StringMatch, StringInsert> matches) {
-        // Filters through matches that don't make sense
-        TreeMap<StringMatch, StringInsert> map = new TreeMap<>(matches);
-        Iterator<StringMatch> search = new TreeMap<>(map).keySet().iterator();
+    /**
+     * Sorts matches by where they start and removes the ones that overlap an earlier match. This
+     * only copies the matches once.
+     *
+     * @param matches Matches and what to replace them with
+     * @return Sorted matches that don't overlap
+     */
+    public List<Map.Entry<StringMatch, StringInsert>> sortMatches(Map<StringMatch, StringInsert> matches) {
+        List<Map.Entry<StringMatch, StringInsert>> sorted = new ArrayList<>(matches.entrySet());
+        sorted.sort(Map.Entry.comparingByKey());
+        int kept = 0;
         int lastEnd = 0;
-        while (search.hasNext()) {
-            StringMatch m = search.next();
-            // Remove overlaps
-            if (m.start < lastEnd) {
-                map.remove(m);
-            } else {
-                lastEnd = m.end;
+        for (Map.Entry<StringMatch, StringInsert> match : sorted) {
+            // Remove overlaps, the first one to start wins
+            if (match.getKey().start < lastEnd) {
+                continue;
             }
+            lastEnd = match.getKey().end;
+            sorted.set(kept++, match);
         }
-        return map;
+        sorted.subList(kept, sorted.size()).clear();
+        return sorted;
     }
 
     /**
      * Complex method used to split up the split text in this class and replace matches to a string.
      *
      * @param matches Map containing a match and a FluidText provider
+     * @return Flattened text with the replacements, or the input if there were no matches
      */
     public Text replaceStrings(Text input, Map<StringMatch, StringInsert> matches) {
         // If there's no matches nothing should get replaced.
         if (matches.isEmpty()) {
             return input;
         }
-        // Sort the matches and then get a nice easy iterator for navigation
-        Iterator<Map.Entry<StringMatch, StringInsert>> sortedMatches =
-                filterMatches(matches).entrySet().iterator();
-        if (!sortedMatches.hasNext()) {
+        return replaceSorted(input, sortMatches(matches));
+    }
+
+    /**
+     * Replaces matches in a {@link StyledString}
+     *
+     * @param input Styled string to replace in
+     * @param matches Map containing a match and a FluidText provider
+     * @return New styled string, or the input if there were no matches
+     */
+    public StyledString replaceStrings(StyledString input, Map<StringMatch, StringInsert> matches) {
+        if (matches.isEmpty()) {
             return input;
         }
-        // List of new RawText to form a new FluidText.
-        TextBuilder newSiblings = new TextBuilder();
-        // What match this is currently on.
-        Map.Entry<StringMatch, StringInsert> match = sortedMatches.next();
+        return replaceSorted(input, sortMatches(matches));
+    }
 
-        // Total number of chars went through. Used to find where the match end and beginning is.
-        int totalchar = 0;
-        boolean inMatch = false;
-        for (RawText text : new TextBuilder().append(input).getTexts()) {
-            if (text.getString() == null || text.getString().length() <= 0) {
-                continue;
-            }
-            if (match == null) {
-                // No more replacing...
-                newSiblings.append(text);
+    /**
+     * Replaces matches in one walk over the style runs of a text. Everything between matches is
+     * copied over run by run, and each match is swapped out for what its {@link StringInsert}
+     * returns. Runs next to each other with the same style are merged, so the result never has
+     * more runs than the input and the replacements combined.
+     *
+     * <p>The {@link StringInsert} gets the whole run that the match starts in, along with its
+     * style.
+     *
+     * <p>Matches that don't start inside the string are skipped, and ones that go past the end
+     * replace the rest of it.
+     *
+     * @param input Text to replace in
+     * @param replacements Matches sorted by start that don't overlap, see {@link
+     *     #sortMatches(Map)}. Ones that overlap are skipped.
+     * @return Flattened text with the replacements
+     */
+    public StyledString replaceSorted(Text input, List<Map.Entry<StringMatch, StringInsert>> replacements) {
+        StyledString styled = StyledString.of(input);
+        if (replacements.isEmpty()) {
+            return styled;
+        }
+        StyledString.Builder builder = new StyledString.Builder();
+        String string = styled.getString();
+        int length = string.length();
+        int position = 0;
+        int run = 0;
+        for (Map.Entry<StringMatch, StringInsert> replacement : replacements) {
+            StringMatch match = replacement.getKey();
+            int start = match.start;
+            if (start < position || start >= length) {
+                // Overlaps the last match or isn't in the string
                 continue;
             }
-            int length = text.getString().length();
-            int last = 0;
-            while (true) {
-                if (length + totalchar <= match.getKey().start) {
-                    newSiblings.append(text.getString().substring(last), text.getStyle());
-                    break;
-                }
-                int start = match.getKey().start - totalchar;
-                int end = match.getKey().end - totalchar;
-                if (inMatch) {
-                    if (end <= length) {
-                        inMatch = false;
-                        newSiblings.append(text.getString().substring(end), text.getStyle());
-                        last = end;
-                        if (!sortedMatches.hasNext()) {
-                            match = null;
-                            break;
-                        }
-                        match = sortedMatches.next();
-                    } else {
-                        break;
-                    }
-                } else if (start < length) {
-                    // End will go onto another string
-                    if (start > 0) {
-                        // Add previous string section
-                        newSiblings.append(text.getString().substring(last, start), text.getStyle());
-                    }
-                    if (end >= length) {
-                        newSiblings.append(match.getValue().getText(text, match.getKey()));
-                        if (end == length) {
-                            if (!sortedMatches.hasNext()) {
-                                match = null;
-                                break;
-                            }
-                            match = sortedMatches.next();
-                        } else {
-                            inMatch = true;
-                        }
-                        break;
-                    }
-                    newSiblings.append(match.getValue().getText(text, match.getKey()));
-                    if (!sortedMatches.hasNext()) {
-                        match = null;
-                    } else {
-                        match = sortedMatches.next();
-                    }
-                    last = end;
-                    if (match == null || match.getKey().start - totalchar > length) {
-                        newSiblings.append(text.getString().substring(end), text.getStyle());
-                        break;
-                    }
-                } else {
-                    break;
-                }
-                if (match == null) {
-                    break;
-                }
+            int end = Math.max(start, Math.min(match.end, length));
+            builder.append(styled, position, start);
+            // Matches are sorted so the run only ever moves forward
+            while (run < styled.getRunCount() - 1 && styled.getRunEnd(run) <= start) {
+                run++;
             }
-            totalchar = totalchar + length;
+            RawText current =
+                    RawText.of(
+                            string.substring(styled.getRunStart(run), styled.getRunEnd(run)),
+                            styled.getRunStyle(run));
+            builder.append(replacement.getValue().getText(current, match));
+            position = end;
         }
-
-        return newSiblings.build();
+        builder.append(styled, position, length);
+        return builder.build();
     }
 
     /**
-     * Splits off the text that is held by a {@link StringMatch}
+     * Splits off the text that is held by a {@link StringMatch}. The text is flattened into a {@link
+     * StyledString} if it isn't one, so callers that cut the same text more than once should
+     * flatten it themselves and use {@link #truncate(StyledString, StringMatch)}.
      *
      * @param match Match to grab text from
      * @return MutableText of text
      */
     public static MutableText truncate(Text input, StringMatch match) {
-        ArrayList<Text> newSiblings = new ArrayList<>();
-        boolean start = false;
-        // Total number of chars went through. Used to find where the match end and beginning is.
-        int totalchar = 0;
-        List<Text> siblings = input.getSiblings();
-        siblings.addFirst(MutableText.of(input.getContent()).fillStyle(input.getStyle()));
-        for (Text text : siblings) {
-            if (text.getContent() == null || text.getString().length() <= 0) {
-                continue;
-            }
-
-            int length = text.getString().length();
-
-            // Checks to see if current text contains the match.start.
-            if (totalchar + length > match.start) {
-                if (totalchar + length >= match.end) {
-                    if (!start) {
-                        newSiblings.add(
-                                Text.literal(
-                                        text.getString()
-                                                .substring(
-                                                        match.start - totalchar,
-                                                        match.end - totalchar)).fillStyle(text.getStyle()));
-                    } else {
-                        newSiblings.add(
-                                Text.literal(
-                                        text.getString().substring(0, match.end - totalchar)).fillStyle(text.getStyle()));
-                    }
-                    MutableText newtext = Text.empty();
-                    for (Text sibling : newSiblings) {
-                        newtext.append(sibling);
-                    }
-                    return newtext;
-                } else {
-                    if (!start) {
-                        newSiblings.add(
-                                Text.literal(
-                                        text.getString().substring(match.start - totalchar)).fillStyle(text.getStyle()));
-                        start = true;
-                    } else {
-                        newSiblings.add(text);
-                    }
-                }
-            }
-
-            totalchar = totalchar + length;
-        }
+        return Text.empty().append(truncate(StyledString.of(input), match));
+    }
 
-        // At the end we take the siblings created in this method and return them.
-        MutableText newtext = Text.empty();
-        for (Text sibling : newSiblings) {
-            newtext.append(sibling);
-        }
-        return newtext;
+    /**
+     * Splits off the part of a {@link StyledString} that is held by a {@link StringMatch}. The first
+     * run is found with a binary search, so this only costs as much as the runs in the match.
+     *
+     * @param input Styled string to grab from
+     * @param match Match to grab text from, clamped to the string
+     * @return Styled part
+     */
+    public static StyledString truncate(StyledString input, StringMatch match) {
+        int end = Math.max(0, Math.min(match.end, input.length()));
+        int start = Math.max(0, Math.min(match.start, end));
+        return input.substring(start, end);
     }
 
     /**
@@ -16,15 +16,19 @@ import io.github.darkkronicle.advancedchatcore.interfaces.IMessageFilter;
 import io.github.darkkronicle.advancedchatcore.konstruct.AdvancedChatKonstruct;
 import io.github.darkkronicle.advancedchatcore.konstruct.StringMatchObject;
 import io.github.darkkronicle.advancedchatcore.util.Color;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
+import io.github.darkkronicle.advancedchatcore.util.PipelineProfiler;
 import io.github.darkkronicle.advancedchatcore.util.SearchResult;
 import io.github.darkkronicle.advancedchatcore.util.StringMatch;
 import io.github.darkkronicle.advancedchatfilters.config.Filter;
 import io.github.darkkronicle.advancedchatfilters.config.FiltersConfigStorage;
 import io.github.darkkronicle.advancedchatfilters.filters.ColorFilter;
+import io.github.darkkronicle.advancedchatfilters.filters.FilterMatcher;
 import io.github.darkkronicle.advancedchatfilters.filters.ForwardFilter;
 import io.github.darkkronicle.advancedchatfilters.filters.ParentFilter;
 import io.github.darkkronicle.advancedchatfilters.filters.ReplaceFilter;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,38 +57,70 @@ public class FiltersHandler implements IMessageFilter {
 
     @Getter private ArrayList<ColorFilter> colorFilters = new ArrayList<>();
 
-    private ArrayList<ParentFilter> filters = new ArrayList<>();
+    /**
+     * Loaded filters along with their candidate lookup. Replaced as a whole whenever filters are
+     * loaded so that a message being filtered off of the client thread sees one consistent set.
+     */
+    private volatile FilterMatcher matcher = new FilterMatcher(new ArrayList<>());
 
+    /** Set on the client thread but used by filters on the message worker too */
     @Getter
-    private NodeProcessor processor;
+    private volatile NodeProcessor processor;
 
     @Override
     public Optional<Text> filter(Text text) {
-        Text unfiltered = text;
+        return filter(FlatText.of(text)).map(FlatText::getText);
+    }
+
+    @Override
+    public Optional<FlatText> filter(FlatText text) {
+        Text unfiltered = text.getText();
+        FilterMatcher matcher = this.matcher;
+        List<ParentFilter> filters = matcher.getFilters();
 
         Color backgroundColor = null;
-        // Filter text
-        for (ParentFilter filter : filters) {
-            ParentFilter.FilterResult result = filter.filter(text, unfiltered);
+        // One scan to find which filters could match instead of every filter searching
+        long start = PipelineProfiler.start();
+        BitSet candidates = matcher.getCandidates(text.getString());
+        PipelineProfiler.getInstance().record("filters", "candidates", start);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ParentFilter.FilterResult result = filters.get(i).filter(text, unfiltered);
             if (result.getColor().isPresent()) {
                 backgroundColor = result.getColor().get();
             }
             if (result.getText().isPresent()) {
-                text = result.getText().get();
+                FlatText updated = text.update(result.getText().get());
+                if (!updated.contentEquals(text)) {
+                    // Filter replaced something, later filters need to look at the new content
+                    start = PipelineProfiler.start();
+                    candidates = matcher.getCandidates(updated.getString());
+                    PipelineProfiler.getInstance().record("filters", "candidates", start);
+                }
+                text = updated;
             }
         }
         // TODO restore this
         // text.setBackground(backgroundColor);
 
-        if (!text.getString().isEmpty()) {
+        if (!text.isEmpty()) {
             return Optional.of(text);
         }
-        return Optional.of(TERMINATE.copy());
+        return Optional.of(FlatText.of(TERMINATE.copy()));
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        for (ParentFilter filter : matcher.getFilters()) {
+            if (!filter.isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void loadFilters() {
         setupProcessor();
-        filters = new ArrayList<>();
+        List<ParentFilter> filters = new ArrayList<>();
         colorFilters = new ArrayList<>();
         for (Filter filter : FiltersConfigStorage.FILTERS) {
             // If it replaces anything.
@@ -93,6 +129,7 @@ public class FiltersHandler implements IMessageFilter {
                 filters.add(filt);
             }
         }
+        matcher = new FilterMatcher(filters);
     }
 
     public void setupProcessor() {
@@ -108,11 +145,18 @@ public class FiltersHandler implements IMessageFilter {
         if (!filter.getActive().config.getBooleanValue()) {
             return null;
         }
-        ParentFilter filt =
-                new ParentFilter(
-                        filter.getFind(),
-                        filter.getFindString().config.getStringValue().replace("&", "§"),
-                        filter.getStripColors().config.getBooleanValue());
+        ParentFilter filt;
+        try {
+            filt =
+                    new ParentFilter(
+                            filter.getFind(),
+                            filter.getFindString().config.getStringValue().replace("&", "§"),
+                            filter.getStripColors().config.getBooleanValue());
+        } catch (IllegalArgumentException e) {
+            AdvancedChatFilters.LOGGER.error(
+                    "Filter " + filter.getName().config.getStringValue() + " has an invalid find string and was skipped! " + e.getMessage());
+            return null;
+        }
         if (filter.getReplace() != null) {
             if (filter.getReplaceTextColor().config.getBooleanValue()) {
                 filt.addFilter(
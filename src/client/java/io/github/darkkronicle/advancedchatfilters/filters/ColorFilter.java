@@ -37,4 +37,9 @@ public class ColorFilter implements IFilter {
     public Optional<Color> getColor() {
         return Optional.of(color);
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatfilters.filters;
+
+import io.github.darkkronicle.advancedchatcore.util.AhoCorasick;
+import io.github.darkkronicle.advancedchatcore.util.RegexLiterals;
+import java.util.BitSet;
+import java.util.List;
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+/**
+ * Finds which {@link ParentFilter}s could match a message in one pass over the message.
+ *
+ * <p>Literal find strings go into a case sensitive automaton and upper lower ones into a case
+ * insensitive automaton. Regex find strings are represented by text every match has to contain, if
+ * that can be worked out. Anything else (custom finders, regexes without required text, empty find
+ * strings) is always a candidate.
+ *
+ * <p>Candidates still have to run their own search, this only rules out filters that can't
+ * possibly match.
+ */
+@Environment(EnvType.CLIENT)
+public class FilterMatcher {
+
+    /** Filters in the order they run */
+    @Getter private final List<ParentFilter> filters;
+
+    private final AhoCorasick exact;
+
+    private final AhoCorasick ignoreCase;
+
+    /** Filters that have to be checked no matter what */
+    private final BitSet always;
+
+    private final int size;
+
+    /**
+     * Compiles the find strings of each filter. Indexes of the returned candidates are the same as
+     * the indexes of the filters.
+     *
+     * @param filters Filters in the order they run
+     */
+    public FilterMatcher(List<ParentFilter> filters) {
+        this.filters = List.copyOf(filters);
+        AhoCorasick.Builder exactBuilder = AhoCorasick.builder(false);
+        AhoCorasick.Builder ignoreCaseBuilder = AhoCorasick.builder(true);
+        this.always = new BitSet(filters.size());
+        this.size = filters.size();
+        for (int i = 0; i < filters.size(); i++) {
+            ParentFilter filter = filters.get(i);
+            String find = filter.getFindString();
+            switch (filter.getFindType()) {
+                case LITERAL -> {
+                    if (find.isEmpty()) {
+                        always.set(i);
+                    } else {
+                        exactBuilder.add(find, i);
+                    }
+                }
+                case UPPERLOWER -> {
+                    if (find.isEmpty()) {
+                        always.set(i);
+                    } else {
+                        ignoreCaseBuilder.add(find, i);
+                    }
+                }
+                case REGEX -> {
+                    String required = RegexLiterals.getRequiredLiteral(find);
+                    if (required == null) {
+                        always.set(i);
+                    } else {
+                        exactBuilder.add(required, i);
+                    }
+                }
+                default -> always.set(i);
+            }
+        }
+        this.exact = exactBuilder.build();
+        this.ignoreCase = ignoreCaseBuilder.build();
+    }
+
+    /**
+     * Finds the filters that could match the input
+     *
+     * @param input Plain string of the message
+     * @return Indexes of the filters that should be ran
+     */
+    public BitSet getCandidates(String input) {
+        BitSet candidates = new BitSet(size);
+        candidates.or(always);
+        exact.collect(input, candidates);
+        ignoreCase.collect(input, candidates);
+        return candidates;
+    }
+}
@@ -8,6 +8,7 @@
 package io.github.darkkronicle.advancedchatfilters.filters;
 
 import io.github.darkkronicle.advancedchatcore.interfaces.IMatchProcessor;
+import io.github.darkkronicle.advancedchatcore.util.PipelineProfiler;
 import io.github.darkkronicle.advancedchatcore.util.SearchResult;
 import io.github.darkkronicle.advancedchatfilters.FiltersHandler;
 import io.github.darkkronicle.advancedchatfilters.interfaces.IFilter;
@@ -34,11 +35,13 @@ public class ForwardFilter implements IFilter {
                 continue;
             }
             IMatchProcessor.Result r = null;
+            long start = PipelineProfiler.start();
             if (!p.getOption().matchesOnly() && !search.getMatches().isEmpty()) {
                 r = p.getOption().processMatches(text, unfiltered, null);
             } else if (!search.getMatches().isEmpty()) {
                 r = p.getOption().processMatches(text, unfiltered, search);
             }
+            PipelineProfiler.getInstance().record("forward", p.getSaveString(), start);
             if (r != null) {
                 if (result == null || r.force) {
                     result = r;
@@ -50,4 +53,14 @@ public class ForwardFilter implements IFilter {
         }
         return Optional.empty();
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        for (MatchProcessorRegistry.MatchProcessorOption p : registry.getAll()) {
+            if (p.isActive() && !p.getOption().isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -7,6 +7,7 @@
  */
 package io.github.darkkronicle.advancedchatfilters.filters;
 
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.util.*;
 import io.github.darkkronicle.advancedchatfilters.FiltersHandler;
 import io.github.darkkronicle.advancedchatfilters.interfaces.IFilter;
@@ -45,12 +46,22 @@ public class ParentFilter {
     @Getter
     private final boolean stripColors;
 
+    /** Compiled form of {@link #findString} so it isn't parsed on every message */
+    @Getter
+    private final CompiledMatcher matcher;
+
+    /**
+     * Creates a parent filter and compiles the find string
+     *
+     * @throws IllegalArgumentException If the find string is invalid for the {@link FindType}
+     */
     public ParentFilter(FindType findType, String findString, boolean stripColors) {
         filters = new ArrayList<>();
         forwardFilters = new ArrayList<>();
         this.findString = findString;
         this.findType = findType;
         this.stripColors = stripColors;
+        this.matcher = findType.getFinder().compile(findString);
     }
 
     public List<IFilter> getFilters() {
@@ -67,19 +78,54 @@ public class ParentFilter {
         forwardFilters.add(forwardFilter);
     }
 
+    /**
+     * If every child filter can run off of the client thread
+     *
+     * @see io.github.darkkronicle.advancedchatcore.interfaces.IMessageFilter#isThreadSafe()
+     */
+    public boolean isThreadSafe() {
+        for (IFilter filter : filters) {
+            if (!filter.isThreadSafe()) {
+                return false;
+            }
+        }
+        for (ForwardFilter filter : forwardFilters) {
+            if (!filter.isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public FilterResult filter(Text text, Text unfiltered) {
-        String searchString;
-        String original = text.getString();
-        SearchResult search;
-        search = SearchResult.searchOf(text, findString, findType);
+        return filter(FlatText.of(text), unfiltered);
+    }
+
+    /**
+     * Searches the already flattened text and runs the child filters if anything matched
+     *
+     * @param flat Current text of the message
+     * @param unfiltered Text before any filters ran
+     * @return Result of the child filters
+     */
+    public FilterResult filter(FlatText flat, Text unfiltered) {
+        long start = PipelineProfiler.start();
+        FilterResult result = apply(flat, unfiltered);
+        PipelineProfiler.getInstance().record("filter", findString, start);
+        return result;
+    }
+
+    private FilterResult apply(FlatText flat, Text unfiltered) {
+        SearchResult search = SearchResult.searchOf(flat, matcher);
         if (search.size() == 0) {
             return FilterResult.EMPTY;
         }
+        Text text = flat.getText();
         Color color = null;
         for (IFilter filter : filters) {
             Optional<Text> newtext = filter.filter(this, text, unfiltered, search);
             if (newtext.isPresent()) {
-                text = StyleFormatter.formatText(newtext.get());
+                text = StyleFormatter.format(newtext.get());
                 if (color != null) {
                     // Make sure forward filter gets the correct background color
                     // TODO fix this
@@ -58,4 +58,10 @@ public class ReplaceFilter implements IFilter {
             return type.filter(this, text, null);
         }
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        // Scripts can call functions that play sounds or show toasts
+        return replaceTo instanceof LiteralNode && (type == null || type.isThreadSafe());
+    }
 }
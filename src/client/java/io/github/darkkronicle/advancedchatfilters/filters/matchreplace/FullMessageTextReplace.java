@@ -41,4 +41,9 @@ public class FullMessageTextReplace implements IMatchReplace {
         }
         return Optional.of(OnlyMatchTextReplace.formatMessage(base, filter, text, search, search.getMatches().getFirst()));
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -61,4 +61,8 @@ public class OnlyMatchTextReplace implements IMatchReplace {
         return (current, match) -> formatMessage(Text.empty().setStyle(Style.EMPTY.withColor(color.color())), filter, text, result, match);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -47,4 +47,9 @@ public class ForwardProcessor implements IMatchProcessor {
     public Result processMatches(Text text, Text unfiltered, SearchResult search) {
         return Result.FORCE_FORWARD;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -15,7 +15,6 @@ import java.util.Map;
 import io.github.darkkronicle.advancedchatcore.util.TextUtil;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 
 @Environment(EnvType.CLIENT)
@@ -58,7 +57,8 @@ public class ReplaceBuilder {
      * @param text Text to replace to
      */
     public ReplaceBuilder addReplacement(StringMatch match, Text text) {
-        replacements.put(match, (current, match1) -> (MutableText) text);
+        // Texts from the pipeline are styled strings, which aren't mutable
+        replacements.put(match, (current, match1) -> text.copy());
         return this;
     }
 }
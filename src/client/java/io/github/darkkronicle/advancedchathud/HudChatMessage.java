@@ -32,7 +32,7 @@ public class HudChatMessage {
         boolean forward = true;
         if (!AdvancedChatHud.MAIN_CHAT_TAB.getCustomChatTabs().isEmpty()) {
             for (CustomChatTab tab : AdvancedChatHud.MAIN_CHAT_TAB.getCustomChatTabs()) {
-                if (!tab.shouldAdd(message.getOriginalText())) {
+                if (!tab.shouldAdd(message.getOriginalFlat())) {
                     continue;
                 }
                 if (tabs.contains(tab)) {
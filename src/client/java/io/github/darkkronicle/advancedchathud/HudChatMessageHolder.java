@@ -8,20 +8,28 @@
 package io.github.darkkronicle.advancedchathud;
 
 import io.github.darkkronicle.advancedchatcore.chat.ChatMessage;
+import io.github.darkkronicle.advancedchatcore.chat.MessageStore;
 import io.github.darkkronicle.advancedchatcore.interfaces.IChatMessageProcessor;
 import io.github.darkkronicle.advancedchathud.config.HudConfigStorage;
 import io.github.darkkronicle.advancedchathud.gui.WindowManager;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 
-@Getter
 @Environment(EnvType.CLIENT)
 public class HudChatMessageHolder implements IChatMessageProcessor {
 
-    private final List<HudChatMessage> messages = new ArrayList<>();
+    /** Stored messages, newest first, indexed by {@link ChatMessage#getOriginId()} */
+    @Getter
+    private final MessageStore.View<HudChatMessage> messages =
+            MessageStore.getInstance().createView("hud", 100, HudChatMessage::getMessage, m -> m.getMessage().getOriginId());
+
+    /** Stored messages by the hash of their content */
+    private final Map<Integer, List<HudChatMessage>> byContent = new HashMap<>();
 
     private static final HudChatMessageHolder INSTANCE = new HudChatMessageHolder();
 
@@ -46,21 +54,43 @@ public class HudChatMessageHolder implements IChatMessageProcessor {
     }
 
     public void addMessage(HudChatMessage message) {
-        messages.addFirst(message);
+        int stored = HudConfigStorage.General.STORED_LINES.config.getIntegerValue();
+        if (stored != messages.getLimit()) {
+            messages.setLimit(stored).forEach(this::unindex);
+        }
+        long budget = HudConfigStorage.General.STORED_MEMORY.config.getIntegerValue() * 1024L;
+        if (budget != messages.getByteBudget()) {
+            messages.setByteBudget(budget).forEach(this::unindex);
+        }
+        List<HudChatMessage> evicted = messages.push(message);
+        if (!evicted.contains(message)) {
+            byContent.computeIfAbsent(message.getMessage().getContentHash(), key -> new ArrayList<>(1)).add(message);
+        }
         WindowManager.getInstance().onNewMessage(message);
-        while (messages.size() > HudConfigStorage.General.STORED_LINES.config.getIntegerValue()) {
-            messages.removeLast();
+        evicted.forEach(this::unindex);
+    }
+
+    private void unindex(HudChatMessage message) {
+        int hash = message.getMessage().getContentHash();
+        List<HudChatMessage> candidates = byContent.get(hash);
+        if (candidates == null) {
+            return;
+        }
+        candidates.removeIf(m -> m == message);
+        if (candidates.isEmpty()) {
+            byContent.remove(hash);
         }
     }
 
     public void clear() {
         this.messages.clear();
+        this.byContent.clear();
     }
 
     public void remove(ChatMessage message) {
         HudChatMessage remove = getMessage(message);
         if (remove != null) {
-            messages.remove(remove);
+            messages.removeAll(message.getOriginId()).forEach(this::unindex);
             WindowManager.getInstance().onRemoveMessage(remove.getMessage());
         }
     }
@@ -68,22 +98,23 @@ public class HudChatMessageHolder implements IChatMessageProcessor {
     public void removeChatMessage(ChatMessage message) {
         HudChatMessage m = getMessageFromContent(message);
         if (m != null) {
-            messages.remove(m);
+            messages.removeAll(m.getMessage().getOriginId()).forEach(this::unindex);
             WindowManager.getInstance().onRemoveMessage(message);
         }
     }
 
     public HudChatMessage getMessage(ChatMessage message) {
-        for (HudChatMessage m : messages) {
-            if (m.getMessage().getUuid().equals(message.getUuid())) {
-                return m;
-            }
-        }
-        return null;
+        return messages.getByKey(message.getOriginId());
     }
 
     public HudChatMessage getMessageFromContent(ChatMessage message) {
-        for (HudChatMessage m : messages) {
+        List<HudChatMessage> candidates = byContent.get(message.getContentHash());
+        if (candidates == null) {
+            return null;
+        }
+        // Newest first, like the stored messages
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            HudChatMessage m = candidates.get(i);
             if (m.getMessage().isSimilar(message) && m.getMessage().getTime().equals(message.getTime())) {
                 return m;
             }
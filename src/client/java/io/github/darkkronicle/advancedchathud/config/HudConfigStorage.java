@@ -203,6 +203,16 @@ public class HudConfigStorage implements IConfigHandler {
                                 1000,
                                 translate("info.storedlines")));
 
+        public static final SaveableConfig<ConfigInteger> STORED_MEMORY =
+                SaveableConfig.fromConfig(
+                        "storedMemory",
+                        new ConfigInteger(
+                                translate("storedmemory"),
+                                0,
+                                0,
+                                65536,
+                                translate("info.storedmemory")));
+
         public static final SaveableConfig<ConfigBoolean> RENDER_IN_OTHER_GUI =
                 SaveableConfig.fromConfig(
                         "renderInOther",
@@ -261,6 +271,7 @@ public class HudConfigStorage implements IConfigHandler {
                         HUD_LINE_TYPE,
                         ALTERNATE_LINES,
                         STORED_LINES,
+                        STORED_MEMORY,
                         RENDER_IN_OTHER_GUI,
                         SCROLL_TIME,
                         SCROLL_TYPE,
@@ -9,18 +9,83 @@ package io.github.darkkronicle.advancedchathud.config;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import io.github.darkkronicle.advancedchatcore.interfaces.CompiledMatcher;
 import io.github.darkkronicle.advancedchatcore.interfaces.IJsonSave;
 import io.github.darkkronicle.advancedchatcore.util.FindType;
-import lombok.AllArgsConstructor;
+import io.github.darkkronicle.advancedchathud.AdvancedChatHud;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
 
 @Data
-@AllArgsConstructor
 public class Match {
 
     private String pattern;
     private FindType findType;
 
+    /** Compiled {@link #pattern}, rebuilt whenever the pattern or find type changes */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private CompiledMatcher matcher = null;
+
+    /** If the current pattern failed to compile, so it isn't retried for every message */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean invalid = false;
+
+    public Match(String pattern, FindType findType) {
+        this.pattern = pattern;
+        this.findType = findType;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+        this.matcher = null;
+        this.invalid = false;
+    }
+
+    public void setFindType(FindType findType) {
+        this.findType = findType;
+        this.matcher = null;
+        this.invalid = false;
+    }
+
+    /**
+     * Get's the compiled form of this match, compiling it if needed.
+     *
+     * @return The compiled matcher, or null if the pattern is invalid
+     */
+    @Nullable
+    public CompiledMatcher getMatcher() {
+        if (matcher == null && !invalid) {
+            try {
+                matcher = findType.getFinder().compile(pattern);
+            } catch (IllegalArgumentException e) {
+                AdvancedChatHud.LOGGER.error("Tab match " + pattern + " is invalid! " + e.getMessage());
+                invalid = true;
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * Checks if there is a match within the input
+     *
+     * @param input String to search
+     * @return If a match was found
+     */
+    public boolean isMatch(String input) {
+        CompiledMatcher compiled = getMatcher();
+        return compiled != null && compiled.find(input);
+    }
+
     public static class MatchSerializer implements IJsonSave<Match> {
 
         @Override
@@ -31,7 +96,10 @@ public class Match {
                 return null;
             }
             FindType type = FindType.fromFindType(findType.getAsString());
-            return new Match(pattern.getAsString(), type);
+            Match match = new Match(pattern.getAsString(), type);
+            // Compile while loading so it isn't done when the first message comes in
+            match.getMatcher();
+            return match;
         }
 
         @Override
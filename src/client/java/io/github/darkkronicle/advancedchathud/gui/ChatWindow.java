@@ -16,11 +16,8 @@ import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
 import io.github.darkkronicle.advancedchatcore.interfaces.IJsonSave;
 import io.github.darkkronicle.advancedchatcore.util.*;
 import io.github.darkkronicle.advancedchathud.AdvancedChatHud;
-import io.github.darkkronicle.advancedchathud.HudChatMessage;
-import io.github.darkkronicle.advancedchathud.HudChatMessageHolder;
 import io.github.darkkronicle.advancedchathud.config.HudConfigStorage;
 import io.github.darkkronicle.advancedchathud.tabs.AbstractChatTab;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -69,7 +66,8 @@ public class ChatWindow {
             (HudConfigStorage.Visibility)
                     HudConfigStorage.General.VISIBILITY.config.getOptionListValue();
 
-    private List<ChatMessage> lines;
+    /** Messages of the tab, shared with other windows on the same tab */
+    @Getter private TabMessageView view;
 
     @Getter @Setter private boolean selected;
 
@@ -121,33 +119,19 @@ public class ChatWindow {
 
     public void setTab(AbstractChatTab tab) {
         this.tab = tab;
-        this.lines = new ArrayList<>();
-        List<HudChatMessage> messages = HudChatMessageHolder.getInstance().getMessages();
-        for (int i = messages.size() - 1; i >= 0; i--) {
-            addMessage(messages.get(i), false, false);
-        }
+        this.view = WindowManager.getInstance().getView(tab);
+        resetScroll();
         WindowManager.getInstance().setSelected(this);
     }
 
-    public void addMessage(HudChatMessage message) {
-        this.addMessage(message, false, true);
-    }
-
-    public void addMessage(HudChatMessage message, boolean force, boolean setTicks) {
-        if (force || message.getTabs().contains(tab)) {
-            ChatMessage newMessage = message.getMessage().shallowClone(getPaddedWidth());
-            if (setTicks) {
-                newMessage.setCreationTick(MinecraftClient.getInstance().inGameHud.getTicks());
-            }
-            this.lines.addFirst(newMessage);
-            if (scrolledHeight > 0) {
-                scrolledHeight += (HudConfigStorage.General.LINE_SPACE.config.getIntegerValue()) * newMessage.getLineCount() + HudConfigStorage.General.MESSAGE_SPACE.config.getIntegerValue();
-            }
-            int visibleMessagesMaxSize =
-                    HudConfigStorage.General.STORED_LINES.config.getIntegerValue();
-            while (this.lines.size() > visibleMessagesMaxSize) {
-                this.lines.removeLast();
-            }
+    /**
+     * Called when a message is added to the view, keeps the scroll on the same message
+     *
+     * @param message Message that was added
+     */
+    public void onMessageAdded(ChatMessage message) {
+        if (scrolledHeight > 0) {
+            scrolledHeight += (HudConfigStorage.General.LINE_SPACE.config.getIntegerValue()) * message.getLineCount(getPaddedWidth()) + HudConfigStorage.General.MESSAGE_SPACE.config.getIntegerValue();
         }
     }
 
@@ -169,8 +153,9 @@ public class ChatWindow {
 
     public int getTotalLines() {
         int count = 0;
-        for (ChatMessage line : lines) {
-            count += line.getLineCount();
+        int width = getPaddedWidth();
+        for (ChatMessage line : view.getMessages()) {
+            count += line.getLineCount(width);
         }
         return count;
     }
@@ -296,7 +281,7 @@ public class ChatWindow {
     }
 
     public int getTotalHeight() {
-        return getTotalLines() * HudConfigStorage.General.LINE_SPACE.config.getIntegerValue() + (lines.size() - 1) * HudConfigStorage.General.MESSAGE_SPACE.config.getIntegerValue();
+        return getTotalLines() * HudConfigStorage.General.LINE_SPACE.config.getIntegerValue() + (view.getMessages().size() - 1) * HudConfigStorage.General.MESSAGE_SPACE.config.getIntegerValue();
     }
 
     public void render(DrawContext context, int ticks, boolean focused) {
@@ -343,11 +328,14 @@ public class ChatWindow {
                 (int) (getConvertedWidth() * scale),
                 (int) (getConvertedHeight() * scale));
         boolean foundScroll = false;
-        for (int j = 0; j < this.lines.size(); j++) {
-            ChatMessage message = this.lines.get(j);
+        int wrapWidth = getPaddedWidth();
+        List<ChatMessage> messages = view.getMessages();
+        for (int j = 0; j < messages.size(); j++) {
+            ChatMessage message = messages.get(j);
+            List<ChatMessage.AdvancedChatLine> messageLines = message.getLines(wrapWidth);
             // To get the proper index of reversed
-            for (int i = message.getLineCount() - 1; i >= 0; i--) {
-                int lineIndex = renderTopFirst ? i : message.getLineCount() - i - 1;
+            for (int i = messageLines.size() - 1; i >= 0; i--) {
+                int lineIndex = renderTopFirst ? i : messageLines.size() - i - 1;
                 lines++;
                 if (currentHeight < scrolledHeight - HudConfigStorage.General.LINE_SPACE.config.getIntegerValue()) {
                     currentHeight += HudConfigStorage.General.LINE_SPACE.config.getIntegerValue();
@@ -363,7 +351,7 @@ public class ChatWindow {
                 if (!y.incrementIfPossible(HudConfigStorage.General.LINE_SPACE.config.getIntegerValue())) {
                     break;
                 }
-                ChatMessage.AdvancedChatLine line = message.getLines().get(renderTopFirst ? message.getLineCount() - i - 1 : i);
+                ChatMessage.AdvancedChatLine line = messageLines.get(renderTopFirst ? messageLines.size() - i - 1 : i);
                 drawLine(
                         context,
                         line,
@@ -654,7 +642,7 @@ public class ChatWindow {
         } else {
             drawRect(context, x, backgroundY, backgroundWidth, height, background.color());
         }
-        if (lineIndex == line.getParent().getLineCount() - 1
+        if (lineIndex == line.getParent().getLineCount(getPaddedWidth()) - 1
                 && line.getParent().getOwner() != null
                 && HudConfigStorage.General.CHAT_HEADS.config.getBooleanValue()) {
             // Allow head to be transparent
@@ -700,9 +688,10 @@ public class ChatWindow {
                 new LimitedInteger(
                         getScaledHeight() + HudConfigStorage.General.LINE_SPACE.config.getIntegerValue(),
                         HudConfigStorage.General.BOTTOM_PAD.config.getIntegerValue());
-        for (ChatMessage message : this.lines) {
+        int wrapWidth = getPaddedWidth();
+        for (ChatMessage message : view.getMessages()) {
             // To get the proper index of reversed
-            for (int i = message.getLineCount() - 1; i >= 0; i--) {
+            for (int i = message.getLineCount(wrapWidth) - 1; i >= 0; i--) {
                 lineHeight += HudConfigStorage.General.LINE_SPACE.config.getIntegerValue();
                 if (lineHeight < scrolledHeight) {
                     continue;
@@ -720,7 +709,7 @@ public class ChatWindow {
                                 >= y.getValue()
                                         - HudConfigStorage.General.LINE_SPACE.config
                                                 .getIntegerValue()) {
-                    ChatMessage.AdvancedChatLine line = message.getLines().get(i);
+                    ChatMessage.AdvancedChatLine line = message.getLines(wrapWidth).get(i);
                     double truestX = trueX;
                     if (renderRight) {
                         truestX = trueX - (getScaledWidth() - line.getWidth()) + headOffset() + HudConfigStorage.General.RIGHT_PAD.config.getIntegerValue() + HudConfigStorage.General.LEFT_PAD.config.getIntegerValue();
@@ -771,9 +760,10 @@ public class ChatWindow {
         int lineHeight = 0;
         boolean foundScroll = false;
         LimitedInteger y = new LimitedInteger(getScaledHeight() + HudConfigStorage.General.LINE_SPACE.config.getIntegerValue(), HudConfigStorage.General.BOTTOM_PAD.config.getIntegerValue());
-        for (ChatMessage message : this.lines) {
+        int wrapWidth = getPaddedWidth();
+        for (ChatMessage message : view.getMessages()) {
             // To get the proper index of reversed
-            for (int i = message.getLineCount() - 1; i >= 0; i--) {
+            for (int i = message.getLineCount(wrapWidth) - 1; i >= 0; i--) {
                 lineHeight += HudConfigStorage.General.LINE_SPACE.config.getIntegerValue();
                 if (lineHeight < scrolledHeight) {
                     continue;
@@ -866,46 +856,6 @@ public class ChatWindow {
     public void setDimensions(int width, int height) {
         this.widthPercent = (double) width / client.getWindow().getScaledWidth();
         this.heightPercent = (double) height / client.getWindow().getScaledHeight();
-        for (ChatMessage m : lines) {
-            m.formatChildren(getPaddedWidth());
-        }
-    }
-
-    public void stackMessage(HudChatMessage message) {
-        ChatMessage toRemove = null;
-        for (ChatMessage line : lines) {
-            if (message.getMessage().isSimilar(line)) {
-                if (!ConfigStorage.General.CHAT_STACK_UPDATE.config.getBooleanValue()) {
-                    // Just update the message and don't resend it
-                    line.setStacks(message.getMessage().getStacks());
-                    return;
-                }
-                toRemove = line;
-                break;
-            }
-        }
-        if (toRemove != null) {
-            // Remove and then readd it with the updated stack information
-            lines.remove(toRemove);
-            addMessage(message, true, true);
-        }
-    }
-
-    public void clearLines() {
-        this.lines.clear();
-    }
-
-    public void removeMessage(ChatMessage remove) {
-        ChatMessage toRemove = null;
-        for (ChatMessage line : lines) {
-            if (remove.isSimilar(line) && remove.getTime().equals(line.getTime())) {
-                toRemove = line;
-                break;
-            }
-        }
-        if (toRemove != null) {
-            lines.remove(toRemove);
-        }
     }
 
     public void toggleMinimalist() {
@@ -962,10 +912,4 @@ public class ChatWindow {
             return obj;
         }
     }
-
-    public void onResolutionChange() {
-        for (ChatMessage m : lines) {
-            m.formatChildren(getConvertedWidth());
-        }
-    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchathud.gui;
+
+import io.github.darkkronicle.advancedchatcore.chat.ChatMessage;
+import io.github.darkkronicle.advancedchatcore.chat.MessageStore;
+import io.github.darkkronicle.advancedchatcore.config.ConfigStorage;
+import io.github.darkkronicle.advancedchathud.HudChatMessage;
+import io.github.darkkronicle.advancedchathud.HudChatMessageHolder;
+import io.github.darkkronicle.advancedchathud.config.HudConfigStorage;
+import io.github.darkkronicle.advancedchathud.tabs.AbstractChatTab;
+import java.util.List;
+import lombok.Getter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The messages of one tab as they are shown in {@link ChatWindow}s. Every window on the tab uses the
+ * same view from {@link WindowManager#getView(AbstractChatTab)}. Messages aren't copied, the view
+ * references the messages in the {@link MessageStore}. Windows get the lines at their own width with
+ * {@link ChatMessage#getLines(int)}, which is shared between windows of the same width.
+ */
+@Environment(EnvType.CLIENT)
+public class TabMessageView {
+
+    @Getter private final AbstractChatTab tab;
+
+    /** Messages in the tab, newest first */
+    @Getter private final MessageStore.View<ChatMessage> messages;
+
+    TabMessageView(AbstractChatTab tab) {
+        this.tab = tab;
+        this.messages =
+                MessageStore.getInstance()
+                        .createView(
+                                "tab " + tab.getName(),
+                                HudConfigStorage.General.STORED_LINES.config.getIntegerValue());
+        List<HudChatMessage> stored = HudChatMessageHolder.getInstance().getMessages();
+        for (int i = stored.size() - 1; i >= 0; i--) {
+            addMessage(stored.get(i), false, false);
+        }
+    }
+
+    /**
+     * Adds a message if it belongs in the tab
+     *
+     * @param message Message to add
+     * @param force Add the message even if it isn't in the tab
+     * @param setTicks Whether the message should be treated as new for fading out
+     * @return The message that was added, null if it doesn't belong in the tab
+     */
+    @Nullable
+    public ChatMessage addMessage(HudChatMessage message, boolean force, boolean setTicks) {
+        if (!force && !message.getTabs().contains(tab)) {
+            return null;
+        }
+        ChatMessage newMessage = message.getMessage();
+        if (setTicks) {
+            newMessage.setCreationTick(MinecraftClient.getInstance().inGameHud.getTicks());
+        }
+        int visibleMessagesMaxSize = HudConfigStorage.General.STORED_LINES.config.getIntegerValue();
+        if (visibleMessagesMaxSize != messages.getLimit()) {
+            messages.setLimit(visibleMessagesMaxSize);
+        }
+        long budget = HudConfigStorage.General.STORED_MEMORY.config.getIntegerValue() * 1024L;
+        if (budget != messages.getByteBudget()) {
+            messages.setByteBudget(budget);
+        }
+        messages.push(newMessage);
+        return newMessage;
+    }
+
+    /**
+     * Moves a stacked message back to the top if stacked messages get resent. The stack count is
+     * shared with the stored message, so otherwise nothing has to change.
+     *
+     * @param message Message that was stacked
+     * @return The message if it was added again, otherwise null
+     */
+    @Nullable
+    public ChatMessage stackMessage(HudChatMessage message) {
+        if (!ConfigStorage.General.CHAT_STACK_UPDATE.config.getBooleanValue()) {
+            return null;
+        }
+        if (messages.removeAll(message.getMessage().getOriginId()).isEmpty()) {
+            return null;
+        }
+        // Readd it so it is shown as new
+        return addMessage(message, true, true);
+    }
+
+    public void removeMessage(ChatMessage remove) {
+        messages.removeAll(remove.getOriginId());
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+
+    /** Releases the messages once no window shows the tab */
+    void close() {
+        MessageStore.getInstance().removeView(messages);
+    }
+}
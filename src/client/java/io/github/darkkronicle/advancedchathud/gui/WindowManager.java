@@ -13,7 +13,6 @@ import fi.dy.masa.malilib.gui.GuiBase;
 import fi.dy.masa.malilib.interfaces.IRenderer;
 import io.github.darkkronicle.advancedchatcore.chat.AdvancedChatScreen;
 import io.github.darkkronicle.advancedchatcore.chat.ChatMessage;
-import io.github.darkkronicle.advancedchatcore.util.SyncTaskQueue;
 import io.github.darkkronicle.advancedchathud.AdvancedChatHud;
 import io.github.darkkronicle.advancedchathud.HudChatMessage;
 import io.github.darkkronicle.advancedchathud.ResolutionEventHandler;
@@ -25,7 +24,9 @@ import io.github.darkkronicle.advancedchathud.tabs.CustomChatTab;
 import io.github.darkkronicle.advancedchathud.tabs.MainChatTab;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -40,6 +41,9 @@ public class WindowManager implements IRenderer, ResolutionEventHandler {
     private static final WindowManager INSTANCE = new WindowManager();
     private final MinecraftClient client;
     private final List<ChatWindow> windows = new ArrayList<>(8);
+
+    /** Messages of each tab that a window shows. Tabs are mutable so they're compared by identity */
+    private final Map<AbstractChatTab, TabMessageView> views = new IdentityHashMap<>();
     private int dragX = 0;
     private int dragY = 0;
     private ChatWindow drag = null;
@@ -55,6 +59,29 @@ public class WindowManager implements IRenderer, ResolutionEventHandler {
 
     public void reset() {
         windows.clear();
+        views.values().forEach(TabMessageView::close);
+        views.clear();
+    }
+
+    /**
+     * Get's the messages of a tab, shared between every window on the tab
+     *
+     * @param tab Tab to get messages for
+     * @return View of the tab
+     */
+    public TabMessageView getView(AbstractChatTab tab) {
+        return views.computeIfAbsent(tab, TabMessageView::new);
+    }
+
+    /** Drops the views of tabs that no window shows anymore */
+    private void removeUnusedViews() {
+        views.values().removeIf(view -> {
+            if (windows.stream().anyMatch(w -> w.getTab() == view.getTab())) {
+                return false;
+            }
+            view.close();
+            return true;
+        });
     }
 
     private void addWindow(ChatWindow window) {
@@ -290,6 +317,7 @@ public class WindowManager implements IRenderer, ResolutionEventHandler {
         for (ChatWindow w : windows) {
             if (w.isSelected()) {
                 w.setTab(tab);
+                removeUnusedViews();
                 return;
             }
         }
@@ -310,6 +338,7 @@ public class WindowManager implements IRenderer, ResolutionEventHandler {
 
     public void deleteWindow(ChatWindow chatWindow) {
         windows.remove(chatWindow);
+        removeUnusedViews();
         if (!windows.isEmpty()) {
             for (ChatWindow w : windows) {
                 w.setSelected(false);
@@ -319,39 +348,45 @@ public class WindowManager implements IRenderer, ResolutionEventHandler {
     }
 
     public void onStackedMessage(HudChatMessage message) {
-        for (ChatWindow w : windows) {
-            w.stackMessage(message);
+        for (TabMessageView view : views.values()) {
+            onViewAdded(view, view.stackMessage(message));
         }
     }
 
     public void onNewMessage(HudChatMessage message) {
         IChatHud.getInstance().addMessage(message);
+        for (TabMessageView view : views.values()) {
+            onViewAdded(view, view.addMessage(message, false, true));
+        }
+    }
+
+    private void onViewAdded(TabMessageView view, ChatMessage added) {
+        if (added == null) {
+            return;
+        }
         for (ChatWindow w : windows) {
-            w.addMessage(message);
+            if (w.getView() == view) {
+                w.onMessageAdded(added);
+            }
         }
     }
 
     public void clear() {
         IChatHud.getInstance().clear(false);
-        for (ChatWindow w : windows) {
-            w.clearLines();
+        for (TabMessageView view : views.values()) {
+            view.clear();
         }
     }
 
     @Override
     public void onResolutionChange() {
-        // Delay resolution change because when toggling full screen it can take a render cycle for it to apply
-        SyncTaskQueue.getInstance().add(2, () -> {
-            for (ChatWindow w : windows) {
-                w.onResolutionChange();
-            }
-        });
+        // Windows get their lines at their current width when rendering, so nothing has to be rewrapped
     }
 
     public void onRemoveMessage(ChatMessage remove) {
         IChatHud.getInstance().removeMessage(remove);
-        for (ChatWindow w : windows) {
-            w.removeMessage(remove);
+        for (TabMessageView view : views.values()) {
+            view.removeMessage(remove);
         }
     }
 
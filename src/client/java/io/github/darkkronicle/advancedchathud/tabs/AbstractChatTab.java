@@ -8,6 +8,7 @@
 package io.github.darkkronicle.advancedchathud.tabs;
 
 import io.github.darkkronicle.advancedchatcore.util.Color;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import java.util.UUID;
 import lombok.Data;
 import net.fabricmc.api.EnvType;
@@ -61,4 +62,15 @@ public abstract class AbstractChatTab {
      * @return True if it should be added.
      */
     public abstract boolean shouldAdd(Text text);
+
+    /**
+     * If the inputted message should be put into the chat tab. Tabs that only look at the string
+     * should override this so it doesn't get rebuilt.
+     *
+     * @param text Flattened text to search.
+     * @return True if it should be added.
+     */
+    public boolean shouldAdd(FlatText text) {
+        return shouldAdd(text.getText());
+    }
 }
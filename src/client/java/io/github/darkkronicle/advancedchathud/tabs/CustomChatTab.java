@@ -12,7 +12,7 @@ import io.github.darkkronicle.Konstruct.nodes.LiteralNode;
 import io.github.darkkronicle.Konstruct.nodes.Node;
 import io.github.darkkronicle.Konstruct.parser.*;
 import io.github.darkkronicle.Konstruct.type.BooleanObject;
-import io.github.darkkronicle.advancedchatcore.util.SearchUtils;
+import io.github.darkkronicle.advancedchatcore.util.FlatText;
 import io.github.darkkronicle.advancedchathud.AdvancedChatHud;
 import io.github.darkkronicle.advancedchathud.config.ChatTab;
 import io.github.darkkronicle.advancedchathud.config.Match;
@@ -67,7 +67,7 @@ public class CustomChatTab extends AbstractChatTab {
                 CustomChatTab self = ((ChatTabObject) Function.parseArgument(context, input, 0).getContent()).getTab();
                 String search = Function.parseArgument(context, input, 1).getContent().getString();
                 for (Match m : self.matches) {
-                    if (SearchUtils.isMatch(search, m.getPattern(), m.getFindType())) {
+                    if (m.isMatch(search)) {
                         return Result.success(new BooleanObject(true));
                     }
                 }
@@ -83,7 +83,15 @@ public class CustomChatTab extends AbstractChatTab {
 
     @Override
     public boolean shouldAdd(Text text) {
-        String search = text.getString();
+        return shouldAdd(text.getString());
+    }
+
+    @Override
+    public boolean shouldAdd(FlatText text) {
+        return shouldAdd(text.getString());
+    }
+
+    private boolean shouldAdd(String search) {
         ParseContext context = AdvancedChatHud.MAIN_CHAT_TAB.getProcessor().createContext();
         Result result = function.parse(context, List.of(new Node() {
             @Override
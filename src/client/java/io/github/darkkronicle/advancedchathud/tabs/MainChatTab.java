@@ -130,7 +130,7 @@ public class MainChatTab extends AbstractChatTab {
         for (HudChatMessage message : HudChatMessageHolder.getInstance().getMessages()) {
             ArrayList<AbstractChatTab> tabs = new ArrayList<>();
             for (AbstractChatTab t : allChatTabs) {
-                if (t.shouldAdd(message.getMessage().getOriginalText())) {
+                if (t.shouldAdd(message.getMessage().getOriginalFlat())) {
                     tabs.add(t);
                 }
             }
@@ -11,6 +11,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import io.github.darkkronicle.advancedchatcore.chat.ChatHistory;
 import io.github.darkkronicle.advancedchatcore.chat.ChatMessage;
+import io.github.darkkronicle.advancedchatcore.chat.MessageStore;
 import io.github.darkkronicle.advancedchatcore.interfaces.IChatMessageProcessor;
 import io.github.darkkronicle.advancedchatlog.config.ChatLogConfigStorage;
 import io.github.darkkronicle.advancedchatlog.gui.ChatLogScreen;
@@ -32,7 +33,10 @@ public class ChatLogData implements IChatMessageProcessor {
     @Getter
     private static boolean loading = false;
 
-    @Getter private List<LogChatMessage> messages = new ArrayList<>();
+    /** Logged messages, newest first, indexed by {@link ChatMessage#getOriginId()} */
+    @Getter
+    private final MessageStore.View<LogChatMessage> messages =
+            MessageStore.getInstance().createView("log", 1000, LogChatMessage::getMessage, l -> l.getMessage().getOriginId());
 
     private ChatLogData() {}
 
@@ -42,7 +46,7 @@ public class ChatLogData implements IChatMessageProcessor {
 
     private void add(ChatMessage message) {
         LogChatMessage log = new LogChatMessage(message);
-        messages.addFirst(log);
+        add(log);
         AdvancedChatLog.logChatMessage(message.getOriginalText());
         Screen screen = MinecraftClient.getInstance().currentScreen;
         if (screen instanceof ChatLogScreen) {
@@ -51,7 +55,19 @@ public class ChatLogData implements IChatMessageProcessor {
     }
 
     private void add(LogChatMessage message) {
-        messages.addFirst(message);
+        int stored = ChatLogConfigStorage.General.STORED_LINES.config.getIntegerValue();
+        if (stored != messages.getLimit()) {
+            messages.setLimit(stored);
+        }
+        long budget = ChatLogConfigStorage.General.STORED_MEMORY.config.getIntegerValue() * 1024L;
+        if (budget != messages.getByteBudget()) {
+            messages.setByteBudget(budget);
+        }
+        int hot = ChatLogConfigStorage.General.HOT_LINES.config.getIntegerValue();
+        if (hot != messages.getHotLimit()) {
+            messages.setHotLimit(hot);
+        }
+        messages.push(message);
     }
 
     @Override
@@ -62,12 +78,8 @@ public class ChatLogData implements IChatMessageProcessor {
         if (type != UpdateType.NEW) {
             return;
         }
-        int width = MinecraftClient.getInstance().getWindow().getScaledWidth() - 20;
-        add(message.shallowClone(width));
-        while (messages.size()
-                > ChatLogConfigStorage.General.STORED_LINES.config.getIntegerValue()) {
-            messages.removeLast();
-        }
+        // Shared with the rest of the store, the log screen wraps it at its own width
+        add(message);
     }
 
     /**
@@ -107,13 +119,13 @@ public class ChatLogData implements IChatMessageProcessor {
         messages.clear();
         LogChatMessageSerializer serializer = new LogChatMessageSerializer();
 
-        for (int i = arr.size() - 1; i >= 0; i--) {
-            JsonElement e = arr.get(i);
+        // Saved oldest first
+        for (JsonElement e : arr) {
             if (!e.isJsonObject()) {
                 continue;
             }
             try {
-                messages.add(serializer.load(e.getAsJsonObject()));
+                add(serializer.load(e.getAsJsonObject()));
             } catch (Exception err) {
                 err.printStackTrace();
             }
@@ -125,12 +137,7 @@ public class ChatLogData implements IChatMessageProcessor {
     }
 
     public LogChatMessage getLogMessage(ChatMessage message) {
-        for (LogChatMessage log : messages) {
-            if (log.getMessage().getUuid().equals(message.getUuid())) {
-                return log;
-            }
-        }
-        return null;
+        return messages.getByKey(message.getOriginId());
     }
 
 }
@@ -53,6 +53,26 @@ public class ChatLogConfigStorage implements IConfigHandler {
                                 10000,
                                 translate("info.stored_lines")));
 
+        public static final SaveableConfig<ConfigInteger> STORED_MEMORY =
+                SaveableConfig.fromConfig(
+                        "stored_memory",
+                        new ConfigInteger(
+                                translate("stored_memory"),
+                                0,
+                                0,
+                                65536,
+                                translate("info.stored_memory")));
+
+        public static final SaveableConfig<ConfigInteger> HOT_LINES =
+                SaveableConfig.fromConfig(
+                        "hot_lines",
+                        new ConfigInteger(
+                                translate("hot_lines"),
+                                500,
+                                0,
+                                10000,
+                                translate("info.hot_lines")));
+
         public static final SaveableConfig<ConfigBoolean> ONLY_MANUAL_CLEAR =
                 SaveableConfig.fromConfig(
                         "only_manual_clear",
@@ -116,7 +136,7 @@ public class ChatLogConfigStorage implements IConfigHandler {
                                 translate("clean_save"), false, translate("info.clean_save")));
 
         public static final ImmutableList<SaveableConfig<? extends IConfigBase>> OPTIONS =
-                ImmutableList.of(STORED_LINES, ONLY_MANUAL_CLEAR, SAVED_LINES, RELOAD_LINES, CLEAN_SAVE, SCROLL_TIME, SCROLL_TYPE, SCROLL_MULTIPLIER);
+                ImmutableList.of(STORED_LINES, STORED_MEMORY, HOT_LINES, ONLY_MANUAL_CLEAR, SAVED_LINES, RELOAD_LINES, CLEAN_SAVE, SCROLL_TIME, SCROLL_TYPE, SCROLL_MULTIPLIER);
     }
 
     public static class Hotkeys {
@@ -25,6 +25,7 @@ import io.github.darkkronicle.advancedchatlog.util.LogChatMessage;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.regex.PatternSyntaxException;
@@ -57,7 +58,7 @@ public class ChatLogScreen extends GuiBase {
     private ContextMenu menu = null;
     private LogChatMessage message = null;
 
-    private List<ChatMessage.AdvancedChatLine> renderLines;
+    private LogLines renderLines;
     private GuiTextFieldGeneric search = null;
     private FindType findType = FindType.LITERAL;
 
@@ -69,17 +70,14 @@ public class ChatLogScreen extends GuiBase {
         add(message.getMessage());
         if (currentScroll > 0) {
             assert client != null;
-            currentScroll += message.getMessage().getLineCount() * (client.textRenderer.fontHeight + 2);
+            currentScroll += message.getMessage().getLineCount(getLineWidth()) * (client.textRenderer.fontHeight + 2);
         }
     }
 
     public void add(ChatMessage message) {
         try {
-            if (SearchUtils.isMatch(
-                    message.getDisplayText().getString(), search.getText(), findType)) {
-                for (int i = 0; i < message.getLineCount(); i++) {
-                    renderLines.addFirst(message.getLines().get(i));
-                }
+            if (SearchUtils.isMatch(message.getDisplayString(), search.getText(), findType)) {
+                renderLines.add(message);
             }
         } catch (PatternSyntaxException e) {
             // Already handled earlier.
@@ -186,7 +184,7 @@ public class ChatLogScreen extends GuiBase {
         for (LogChatMessage l : ChatLogData.getInstance().getMessages()) {
             ChatMessage m = l.getMessage();
             try {
-                if (SearchUtils.isMatch(m.getDisplayText().getString(), contents, findType)) {
+                if (SearchUtils.isMatch(m.getDisplayString(), contents, findType)) {
                     sorted.add(l);
                 }
             } catch (PatternSyntaxException e) {
@@ -203,6 +201,11 @@ public class ChatLogScreen extends GuiBase {
         setLines(sorted);
     }
 
+    /** Width that the log wraps messages at */
+    private int getLineWidth() {
+        return MinecraftClient.getInstance().getWindow().getScaledWidth() - 20;
+    }
+
     private void setLines(List<LogChatMessage> messages) {
         // Don't want jank
         messages = new ArrayList<>(messages);
@@ -212,12 +215,65 @@ public class ChatLogScreen extends GuiBase {
             ).fillStyle(Style.EMPTY.withColor(TextColor.fromFormatting(Formatting.RED)));
             messages.add(new LogChatMessage(ChatMessage.builder().displayText(text).originalText(text).build()));
         }
-        renderLines = new ArrayList<>();
-        for (LogChatMessage l : messages) {
-            ChatMessage m = l.getMessage();
-            for (int i = m.getLineCount() - 1; i >= 0; i--) {
-                renderLines.add(m.getLines().get(i));
+        renderLines = new LogLines(getLineWidth());
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            renderLines.add(messages.get(i).getMessage());
+        }
+    }
+
+    /**
+     * Lines of the shown messages, newest first. Only line counts are kept, the lines themselves
+     * are looked up when they are rendered so that compacted messages are only unpacked once
+     * they're scrolled to.
+     */
+    private static class LogLines {
+
+        private final int width;
+
+        /** Messages, oldest first */
+        private final List<ChatMessage> messages = new ArrayList<>();
+
+        /** Total amount of lines up to and including each message in {@link #messages} */
+        private int[] ends = new int[64];
+
+        private LogLines(int width) {
+            this.width = width;
+        }
+
+        /**
+         * Adds a message as the newest
+         *
+         * @param message Message to add
+         */
+        private void add(ChatMessage message) {
+            int index = messages.size();
+            if (index == ends.length) {
+                ends = Arrays.copyOf(ends, index * 2);
             }
+            ends[index] = size() + message.getLineCount(width);
+            messages.add(message);
+        }
+
+        private int size() {
+            return messages.isEmpty() ? 0 : ends[messages.size() - 1];
+        }
+
+        /**
+         * Get's a line
+         *
+         * @param index Index of the line, 0 being the bottom line of the newest message
+         * @return Line
+         */
+        private ChatMessage.AdvancedChatLine get(int index) {
+            // Count from the oldest line
+            int line = size() - 1 - index;
+            int found = Arrays.binarySearch(ends, 0, messages.size(), line + 1);
+            // An exact match is the last line of that message
+            int message = found >= 0 ? found : -found - 1;
+            int start = message == 0 ? 0 : ends[message - 1];
+            List<ChatMessage.AdvancedChatLine> lines = messages.get(message).getLines(width);
+            // Text could have changed since it was counted
+            return lines.get(Math.min(line - start, lines.size() - 1));
         }
     }
 
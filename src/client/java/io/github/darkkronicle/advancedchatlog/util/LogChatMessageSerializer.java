@@ -11,6 +11,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.github.darkkronicle.advancedchatcore.chat.ChatMessage;
 import io.github.darkkronicle.advancedchatcore.interfaces.IJsonSave;
+import io.github.darkkronicle.advancedchatcore.util.StylePool;
 import io.github.darkkronicle.advancedchatlog.config.ChatLogConfigStorage;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -35,12 +36,12 @@ public class LogChatMessageSerializer implements IJsonSave<LogChatMessage> {
 
     private Style cleanStyle(Style style) {
         if (!ChatLogConfigStorage.General.CLEAN_SAVE.config.getBooleanValue()) {
-            return style;
+            return StylePool.intern(style);
         }
         style = style.withClickEvent(null);
         style = style.withHoverEvent(null);
         style = style.withInsertion(null);
-        return style;
+        return StylePool.intern(style);
     }
 
     private Text transfer(Text text) {
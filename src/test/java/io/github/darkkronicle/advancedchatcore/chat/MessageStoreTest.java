@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MessageStoreTest {
+
+    private final MessageStore store = MessageStore.getInstance();
+
+    /** Views created by the test, the store is shared so they're removed after each one */
+    private final List<MessageStore.View<ChatMessage>> created = new ArrayList<>();
+
+    private MessageStore.View<ChatMessage> view(int hotLimit) {
+        MessageStore.View<ChatMessage> view = store.createView("test", 10);
+        view.setHotLimit(hotLimit);
+        created.add(view);
+        return view;
+    }
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.builder().displayText(Text.literal(content)).build();
+    }
+
+    @AfterEach
+    void removeViews() {
+        for (MessageStore.View<ChatMessage> view : created) {
+            store.removeView(view);
+        }
+    }
+
+    @Test
+    void compactsOnlyOnceColdInEveryView() {
+        MessageStore.View<ChatMessage> first = view(1);
+        MessageStore.View<ChatMessage> second = view(0);
+        ChatMessage message = message("hello");
+        first.push(message);
+        second.push(message);
+        first.push(message("newer"));
+        // Cold in the first view, but the second keeps everything hot
+        assertFalse(message.isCompacted());
+
+        second.setHotLimit(1);
+        ChatMessage newest = message("newest");
+        second.push(newest);
+        assertTrue(message.isCompacted());
+        assertFalse(newest.isCompacted());
+        assertEquals("hello", message.getDisplayText().getString());
+    }
+
+    @Test
+    void compactsWhenTheLastHotReferenceIsRemoved() {
+        MessageStore.View<ChatMessage> first = view(1);
+        MessageStore.View<ChatMessage> second = view(1);
+        ChatMessage message = message("hello");
+        first.push(message);
+        second.push(message);
+        first.push(message("newer"));
+        assertFalse(message.isCompacted());
+
+        second.removeAll(message.getOriginId());
+        assertTrue(message.isCompacted());
+        assertSame(message, store.get(message.getOriginId()));
+    }
+
+    @Test
+    void removingAColdElementKeepsTheColdCount() {
+        MessageStore.View<ChatMessage> view = view(1);
+        ChatMessage oldest = message("one");
+        ChatMessage removed = message("two");
+        ChatMessage hot = message("three");
+        view.push(oldest);
+        view.push(removed);
+        view.push(hot);
+        assertTrue(oldest.isCompacted());
+        assertTrue(removed.isCompacted());
+        assertFalse(hot.isCompacted());
+
+        view.removeAll(removed.getOriginId());
+        assertNull(store.get(removed.getOriginId()));
+        // Only the oldest is cold now, so the next push cools the one that was hot
+        view.push(message("four"));
+        assertTrue(hot.isCompacted());
+    }
+
+    @Test
+    void estimatedBytesGoBackToZero() {
+        MessageStore.View<ChatMessage> view = view(0);
+        ChatMessage message = message("hello");
+        view.push(message);
+        assertEquals(message.getEstimatedBytes(), view.getEstimatedBytes());
+        view.removeAll(message.getOriginId());
+        assertEquals(0, view.getEstimatedBytes());
+    }
+
+    @Test
+    void removeViewOnlyRemovesThatView() {
+        MessageStore.View<ChatMessage> first = view(0);
+        MessageStore.View<ChatMessage> second = view(0);
+        // Both are empty, so they're equal as lists
+        assertEquals(first, second);
+        store.removeView(second);
+        assertTrue(store.getViews().stream().anyMatch(view -> view == first));
+        assertFalse(store.getViews().stream().anyMatch(view -> view == second));
+    }
+
+    @Test
+    void removeViewKeepsSharedMessages() {
+        MessageStore.View<ChatMessage> first = view(0);
+        MessageStore.View<ChatMessage> second = view(0);
+        ChatMessage shared = message("shared");
+        ChatMessage only = message("only");
+        first.push(shared);
+        second.push(shared);
+        second.push(only);
+        store.removeView(second);
+        assertSame(shared, store.get(shared.getOriginId()));
+        assertNull(store.get(only.getOriginId()));
+        assertEquals(1, first.size());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.chat;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Test;
+
+class StackIndexTest {
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.builder().displayText(Text.literal(content)).build();
+    }
+
+    private static StackIndex index(int size, ChatMessage... newestFirst) {
+        StackIndex index = new StackIndex();
+        index.rebuild(size, List.of(newestFirst));
+        return index;
+    }
+
+    @Test
+    void findsTheSameContent() {
+        ChatMessage first = message("hello there");
+        StackIndex index = index(5, first);
+        assertSame(first, index.find(message("hello there")));
+        assertNull(index.find(message("hello")));
+    }
+
+    @Test
+    void findsTheNewestOfDuplicates() {
+        ChatMessage older = message("hello");
+        ChatMessage newer = message("hello");
+        StackIndex index = index(5);
+        index.add(older);
+        index.add(newer);
+        assertSame(newer, index.find(message("hello")));
+    }
+
+    @Test
+    void evictsTheOldestPastTheSize() {
+        ChatMessage first = message("one");
+        StackIndex index = index(2);
+        index.add(first);
+        index.add(message("two"));
+        index.add(message("three"));
+        assertNull(index.find(message("one")));
+        assertFalse(index.remove(first));
+    }
+
+    @Test
+    void removeOnlyMatchesTheSameObject() {
+        ChatMessage stored = message("hello");
+        StackIndex index = index(5, stored);
+        // Equal by value, but a different message
+        assertFalse(index.remove(message("hello")));
+        assertSame(stored, index.find(message("hello")));
+        assertTrue(index.remove(stored));
+        assertNull(index.find(message("hello")));
+        assertFalse(index.remove(stored));
+    }
+
+    @Test
+    void rebuildKeepsTheNewest() {
+        ChatMessage newest = message("c");
+        ChatMessage middle = message("b");
+        ChatMessage oldest = message("a");
+        StackIndex index = index(2, newest, middle, oldest);
+        assertSame(newest, index.find(message("c")));
+        assertSame(middle, index.find(message("b")));
+        assertNull(index.find(message("a")));
+    }
+
+    @Test
+    void zeroSizeKeepsNothing() {
+        StackIndex index = index(0);
+        index.add(message("hello"));
+        assertNull(index.find(message("hello")));
+    }
+
+    @Test
+    void similarityFindsNearContent() {
+        ChatMessage stored = message("Player joined the game");
+        StackIndex index = index(5, stored);
+        assertNull(index.find(message("Player joined the game!")));
+        index.setSimilarity(0.9);
+        assertSame(stored, index.find(message("Player joined the game!")));
+        assertSame(stored, index.find(message("player joined the game")));
+        assertNull(index.find(message("Something else entirely")));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.junit.jupiter.api.Test;
+
+class CompactTextTest {
+
+    private static final Style RED = Style.EMPTY.withColor(Formatting.RED);
+
+    private static final Style BOLD = Style.EMPTY.withBold(true);
+
+    private static StyledString styled(String first, String second) {
+        return new StyledString.Builder().append(first, RED).append(second, BOLD).build();
+    }
+
+    @Test
+    void shortTextRoundTrips() {
+        StyledString original = styled("hello ", "world");
+        CompactText compact = CompactText.of(original);
+        assertEquals("hello world", compact.getString());
+        assertEquals(original, compact.toStyledString());
+    }
+
+    @Test
+    void longTextRoundTrips() {
+        StyledString original = styled("<Player> ", "a long message that repeats. ".repeat(20));
+        CompactText compact = CompactText.of(original);
+        assertEquals(original.getString(), compact.getString());
+        assertEquals(original, compact.toStyledString());
+        // Repetitive text is compressed to much less than the string itself
+        assertTrue(compact.getEstimatedBytes() < original.getEstimatedBytes());
+    }
+
+    @Test
+    void multiByteCharactersRoundTrip() {
+        StyledString original = styled("§cé ", "→ ✔ 😀 ".repeat(20));
+        CompactText compact = CompactText.of(original);
+        assertEquals(original, compact.toStyledString());
+    }
+
+    @Test
+    void emptyRoundTrips() {
+        assertSame(StyledString.EMPTY, CompactText.of(StyledString.EMPTY).toStyledString());
+        assertEquals("", CompactText.of(StyledString.EMPTY).getString());
+    }
+
+    @Test
+    void textsAreFlattened() {
+        Text text = Text.literal("hello ").setStyle(RED).append(Text.literal("world").setStyle(BOLD));
+        assertEquals(StyledString.of(text), CompactText.of(text).toStyledString());
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ProfanityUtilTest {
+
+    @Test
+    void edgesOfWordsAreBoundaries() {
+        assertTrue(ProfanityUtil.isWordBoundary("bad word", 0));
+        assertTrue(ProfanityUtil.isWordBoundary("bad word", 3));
+        assertTrue(ProfanityUtil.isWordBoundary("bad word", 4));
+        assertTrue(ProfanityUtil.isWordBoundary("bad word", 8));
+    }
+
+    @Test
+    void insideWordsIsNotABoundary() {
+        assertFalse(ProfanityUtil.isWordBoundary("bass", 1));
+        assertFalse(ProfanityUtil.isWordBoundary("snake_case", 5));
+        assertFalse(ProfanityUtil.isWordBoundary("abc123", 3));
+        assertFalse(ProfanityUtil.isWordBoundary("", 0));
+        assertFalse(ProfanityUtil.isWordBoundary("a  b", 2));
+    }
+
+    @Test
+    void onlyAsciiIsAWordCharacter() {
+        // Accented letters split words, like a regex \b without the unicode flag
+        assertTrue(ProfanityUtil.isWordBoundary("café", 3));
+        assertTrue(ProfanityUtil.isWordBoundary("été", 1));
+        assertFalse(ProfanityUtil.isWordBoundary("éé", 1));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RingBufferTest {
+
+    /** Elements are keyed by their first character */
+    private static RingBuffer<String> buffer(int limit) {
+        return new RingBuffer<>(limit, value -> value.charAt(0));
+    }
+
+    private static List<String> contents(RingBuffer<String> buffer) {
+        List<String> values = new ArrayList<>();
+        for (String value : buffer) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    @Test
+    void newestIsFirst() {
+        RingBuffer<String> buffer = buffer(5);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("c1");
+        assertEquals(List.of("c1", "b1", "a1"), contents(buffer));
+        assertEquals("c1", buffer.get(0));
+        assertEquals("a1", buffer.get(2));
+    }
+
+    @Test
+    void pushEvictsTheOldest() {
+        RingBuffer<String> buffer = buffer(2);
+        assertNull(buffer.push("a1"));
+        assertNull(buffer.push("b1"));
+        assertEquals("a1", buffer.push("c1"));
+        assertEquals(List.of("c1", "b1"), contents(buffer));
+        assertFalse(buffer.containsKey('a'));
+    }
+
+    @Test
+    void removeAllFollowsTheKeyChain() {
+        RingBuffer<String> buffer = buffer(10);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("a2");
+        buffer.push("c1");
+        buffer.push("a3");
+        assertEquals(List.of("a3", "a2", "a1"), buffer.removeAll('a'));
+        assertEquals(List.of("c1", "b1"), contents(buffer));
+        assertEquals(2, buffer.size());
+        assertEquals(List.of(), buffer.removeAll('a'));
+    }
+
+    @Test
+    void evictionCutsTheKeyChain() {
+        RingBuffer<String> buffer = buffer(3);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("a2");
+        buffer.push("c1");
+        // a1 was evicted, so only a2 is left for the key
+        assertEquals(List.of("a2"), buffer.removeAll('a'));
+        assertEquals(List.of("c1", "b1"), contents(buffer));
+    }
+
+    @Test
+    void indicesOfMatchesGet() {
+        RingBuffer<String> buffer = buffer(10);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("a2");
+        buffer.push("c1");
+        int[] indices = buffer.indicesOf('a');
+        assertArrayEquals(new int[] {1, 3}, indices);
+        for (int index : indices) {
+            assertEquals('a', buffer.get(index).charAt(0));
+        }
+        assertArrayEquals(new int[0], buffer.indicesOf('z'));
+    }
+
+    @Test
+    void indicesOfSkipsGaps() {
+        RingBuffer<String> buffer = buffer(10);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("c1");
+        buffer.push("b2");
+        buffer.push("a2");
+        buffer.removeAll('b');
+        assertArrayEquals(new int[] {0, 2}, buffer.indicesOf('a'));
+        assertEquals(List.of("a2", "c1", "a1"), contents(buffer));
+        assertEquals("a1", buffer.get(2));
+    }
+
+    @Test
+    void getByKeyIsTheNewest() {
+        RingBuffer<String> buffer = buffer(10);
+        buffer.push("a1");
+        buffer.push("a2");
+        assertEquals("a2", buffer.getByKey('a'));
+        assertNull(buffer.getByKey('b'));
+    }
+
+    @Test
+    void wrapsAroundWithGaps() {
+        RingBuffer<String> buffer = buffer(4);
+        // Enough pushes and removals to wrap the slots and force compacting
+        for (int i = 0; i < 100; i++) {
+            buffer.push("a" + i);
+            buffer.push("b" + i);
+            buffer.removeAll('b');
+        }
+        // Each b is pushed while the buffer is full, which evicts an a before the b is removed
+        assertEquals(3, buffer.size());
+        assertEquals(List.of("a99", "a98", "a97"), contents(buffer));
+        assertArrayEquals(new int[] {0, 1, 2}, buffer.indicesOf('a'));
+        assertFalse(buffer.containsKey('b'));
+    }
+
+    @Test
+    void setLimitEvictsOldest() {
+        RingBuffer<String> buffer = buffer(5);
+        buffer.push("a1");
+        buffer.push("b1");
+        buffer.push("c1");
+        buffer.push("d1");
+        assertEquals(List.of("b1", "a1"), buffer.setLimit(2));
+        assertEquals(List.of("d1", "c1"), contents(buffer));
+        assertEquals("c1", buffer.push("e1"));
+        assertTrue(buffer.containsKey('d'));
+    }
+
+    @Test
+    void zeroLimitKeepsNothing() {
+        RingBuffer<String> buffer = buffer(0);
+        assertEquals("a1", buffer.push("a1"));
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+    private static int distance(String first, String second) {
+        return Long.bitCount(SimHash.of(first) ^ SimHash.of(second));
+    }
+
+    @Test
+    void emptyStringIsZero() {
+        assertEquals(0, SimHash.of(""));
+    }
+
+    @Test
+    void sameStringSameFingerprint() {
+        assertEquals(SimHash.of("Player joined the game"), SimHash.of("Player joined the game"));
+    }
+
+    @Test
+    void caseIsIgnored() {
+        assertEquals(SimHash.of("Player joined the game"), SimHash.of("PLAYER JOINED THE GAME"));
+    }
+
+    @Test
+    void shortStringsAreOneShingle() {
+        assertEquals(SimHash.of("ab"), SimHash.of("AB"));
+        assertTrue(SimHash.of("ab") != SimHash.of("ba"));
+    }
+
+    @Test
+    void similarStringsAreCloserThanDifferentOnes() {
+        String base = "The quick brown fox jumps over the lazy dog";
+        int near = distance(base, "The quick brown fox jumped over the lazy dog");
+        int far = distance(base, "Welcome to the server, have a nice stay");
+        assertTrue(near < far, near + " should be less than " + far);
+        assertTrue(near <= 16, near + " bits is too far for a one word change");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextColor;
+import net.minecraft.util.Formatting;
+import org.junit.jupiter.api.Test;
+
+class StyleFormatterTest {
+
+    private static StyledString format(Text text, int[] parts) {
+        return StyledString.of(StyleFormatter.format(text, parts));
+    }
+
+    @Test
+    void textWithoutCodesIsUntouched() {
+        Text text = Text.literal("plain").append(Text.literal(" text"));
+        int[] parts = new int[2];
+        assertSame(text, StyleFormatter.format(text, parts));
+        assertArrayEquals(new int[] {0, 0}, parts);
+    }
+
+    @Test
+    void codeStopsAtTheEndOfItsPart() {
+        Text text = Text.literal("§cWarning:").append(Text.literal(" details"));
+        int[] parts = new int[2];
+        StyledString formatted = format(text, parts);
+        assertEquals("Warning: details", formatted.getString());
+        assertEquals(TextColor.fromFormatting(Formatting.RED), formatted.getStyleAt(0).getColor());
+        assertNull(formatted.getStyleAt(8).getColor());
+        assertArrayEquals(new int[] {1, 2}, parts);
+    }
+
+    @Test
+    void styledStringKeepsPartsWithCodes() {
+        Text text = Text.literal("§cWarning:").append(Text.literal(" details"));
+        StyledString styled = StyledString.of(text);
+        assertEquals(2, styled.getRunCount());
+        assertEquals(format(text, new int[2]), format(styled, new int[2]));
+    }
+
+    @Test
+    void hexCodeStopsAtTheEndOfItsPart() {
+        Text text = Text.literal("a").append(Text.literal("§#ff0000red")).append(Text.literal("plain"));
+        StyledString formatted = format(text, new int[2]);
+        assertEquals("aredplain", formatted.getString());
+        assertNull(formatted.getStyleAt(0).getColor());
+        assertEquals(0xFF0000, formatted.getStyleAt(1).getColor().getRgb() & 0xFFFFFF);
+        assertNull(formatted.getStyleAt(4).getColor());
+    }
+
+    @Test
+    void codeKeepsTheStyleOfItsPart() {
+        Style bold = Style.EMPTY.withBold(true);
+        Text text = Text.literal("§ared").setStyle(bold).append(Text.literal("next"));
+        StyledString formatted = format(text, new int[2]);
+        assertEquals("rednext", formatted.getString());
+        assertEquals(TextColor.fromFormatting(Formatting.GREEN), formatted.getStyleAt(0).getColor());
+        // Siblings inherit the parent's style, but not its formatting codes
+        Style second = formatted.getStyleAt(3);
+        assertNull(second.getColor());
+        assertEquals(true, second.isBold());
+    }
+
+    @Test
+    void onlyPartsWithCodesAreFormatted() {
+        Text text = Text.literal("one ").append(Text.literal("§ltwo")).append(Text.literal(" three"));
+        int[] parts = new int[2];
+        StyledString formatted = format(text, parts);
+        assertEquals("one two three", formatted.getString());
+        assertArrayEquals(new int[] {1, 3}, parts);
+        assertEquals(false, formatted.getStyleAt(0).isBold());
+        assertEquals(true, formatted.getStyleAt(4).isBold());
+        assertEquals(false, formatted.getStyleAt(7).isBold());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.junit.jupiter.api.Test;
+
+class StyledStringTest {
+
+    private static final Style RED = Style.EMPTY.withColor(Formatting.RED);
+
+    private static final Style BLUE = Style.EMPTY.withColor(Formatting.BLUE);
+
+    private static final Style BOLD = Style.EMPTY.withBold(true);
+
+    /** "hello world!" as three runs: "hello " red, "world" blue, "!" bold */
+    private static StyledString threeRuns() {
+        return new StyledString.Builder().append("hello ", RED).append("world", BLUE).append("!", BOLD).build();
+    }
+
+    @Test
+    void ofFlattensTheTree() {
+        Text text =
+                Text.literal("a")
+                        .setStyle(RED)
+                        .append(Text.literal("b").setStyle(RED))
+                        .append(Text.literal("c").setStyle(BLUE));
+        StyledString styled = StyledString.of(text);
+        assertEquals("abc", styled.getString());
+        // Parts next to each other with the same style are merged
+        assertEquals(2, styled.getRunCount());
+        assertEquals(2, styled.getRunEnd(0));
+        assertEquals(RED, styled.getStyleAt(1));
+        assertEquals(BLUE, styled.getStyleAt(2));
+    }
+
+    @Test
+    void ofKeepsInheritedStyles() {
+        Text text = Text.literal("bold ").setStyle(BOLD).append(Text.literal("red").setStyle(RED));
+        StyledString styled = StyledString.of(text);
+        assertEquals(true, styled.getStyleAt(5).isBold());
+        assertEquals(RED.getColor(), styled.getStyleAt(5).getColor());
+    }
+
+    @Test
+    void ofStyledStringIsTheSame() {
+        StyledString styled = threeRuns();
+        assertSame(styled, StyledString.of(styled));
+    }
+
+    @Test
+    void ofEmptyStringIsEmpty() {
+        assertSame(StyledString.EMPTY, StyledString.of("", RED));
+        assertSame(StyledString.EMPTY, StyledString.of(Text.empty()));
+        assertEquals(Style.EMPTY, StyledString.EMPTY.getStyleAt(0));
+    }
+
+    @Test
+    void getRunAtBoundaries() {
+        StyledString styled = threeRuns();
+        assertEquals(0, styled.getRun(5));
+        assertEquals(1, styled.getRun(6));
+        assertEquals(2, styled.getRun(11));
+        // Past the end is the last run
+        assertEquals(2, styled.getRun(12));
+    }
+
+    @Test
+    void substringInsideOneRun() {
+        StyledString part = threeRuns().substring(7, 10);
+        assertEquals("orl", part.getString());
+        assertEquals(1, part.getRunCount());
+        assertEquals(BLUE, part.getRunStyle(0));
+    }
+
+    @Test
+    void substringAcrossRuns() {
+        StyledString part = threeRuns().substring(4, 12);
+        assertEquals("o world!", part.getString());
+        assertEquals(3, part.getRunCount());
+        assertEquals(2, part.getRunEnd(0));
+        assertEquals(7, part.getRunEnd(1));
+        assertEquals(8, part.getRunEnd(2));
+        assertEquals(BOLD, part.getStyleAt(7));
+    }
+
+    @Test
+    void substringOnRunBoundaries() {
+        StyledString part = threeRuns().substring(6, 11);
+        assertEquals("world", part.getString());
+        assertEquals(1, part.getRunCount());
+        assertEquals(BLUE, part.getRunStyle(0));
+    }
+
+    @Test
+    void substringWholeAndEmpty() {
+        StyledString styled = threeRuns();
+        assertSame(styled, styled.substring(0, styled.length()));
+        assertSame(StyledString.EMPTY, styled.substring(3, 3));
+    }
+
+    @Test
+    void substringOutOfBoundsThrows() {
+        StyledString styled = threeRuns();
+        assertThrows(IndexOutOfBoundsException.class, () -> styled.substring(-1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> styled.substring(3, 20));
+        assertThrows(IndexOutOfBoundsException.class, () -> styled.substring(5, 4));
+    }
+
+    @Test
+    void substringMatchesTheBuilder() {
+        StyledString styled = threeRuns();
+        for (int start = 0; start <= styled.length(); start++) {
+            for (int end = start; end <= styled.length(); end++) {
+                StyledString built = new StyledString.Builder().append(styled, start, end).build();
+                assertEquals(built, styled.substring(start, end));
+            }
+        }
+    }
+
+    @Test
+    void siblingsAreOnePerRun() {
+        StyledString styled = threeRuns();
+        List<Text> siblings = styled.getSiblings();
+        assertEquals(3, siblings.size());
+        assertEquals("world", siblings.get(1).getString());
+        assertEquals(BLUE, siblings.get(1).getStyle());
+        // A copy, so changing it doesn't change the string
+        siblings.add(Text.literal("more"));
+        assertEquals(3, styled.getSiblings().size());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2021 DarkKronicle
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.github.darkkronicle.advancedchatcore.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.junit.jupiter.api.Test;
+
+class TextUtilTest {
+
+    private static final Style RED = Style.EMPTY.withColor(Formatting.RED);
+
+    private static final Style BLUE = Style.EMPTY.withColor(Formatting.BLUE);
+
+    /** Replaces with a literal in the style of the run the match starts in */
+    private static StringInsert literal(String replacement) {
+        return (current, match) -> Text.literal(replacement).setStyle(current.getStyle());
+    }
+
+    private static StyledString twoRuns() {
+        return new StyledString.Builder().append("hello ", RED).append("world", BLUE).build();
+    }
+
+    @Test
+    void noMatchesReturnsInput() {
+        StyledString input = twoRuns();
+        assertSame(input, TextUtil.replaceStrings(input, new HashMap<>()));
+    }
+
+    @Test
+    void replacesInsideOneRun() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("world", 6, 11), literal("there"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("hello there", result.getString());
+        assertEquals(2, result.getRunCount());
+        assertEquals(RED, result.getStyleAt(0));
+        assertEquals(BLUE, result.getStyleAt(6));
+    }
+
+    @Test
+    void matchAcrossRunsGetsTheFirstRun() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("o w", 4, 7), literal("_"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("hell_orld", result.getString());
+        // The replacement takes the style of the run it starts in, and merges into it
+        assertEquals(2, result.getRunCount());
+        assertEquals(5, result.getRunEnd(0));
+        assertEquals(RED, result.getStyleAt(4));
+        assertEquals(BLUE, result.getStyleAt(5));
+    }
+
+    @Test
+    void adjacentMatchesAreBothReplaced() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("he", 0, 2), literal("A"));
+        matches.put(new StringMatch("ll", 2, 4), literal("B"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("ABo world", result.getString());
+    }
+
+    @Test
+    void overlappingMatchesKeepTheFirst() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("hel", 0, 3), literal("A"));
+        matches.put(new StringMatch("llo", 2, 5), literal("B"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("Alo world", result.getString());
+    }
+
+    @Test
+    void sortMatchesDropsOverlaps() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("b", 5, 8), literal(""));
+        matches.put(new StringMatch("a", 0, 6), literal(""));
+        matches.put(new StringMatch("c", 8, 9), literal(""));
+        List<Map.Entry<StringMatch, StringInsert>> sorted = TextUtil.sortMatches(matches);
+        List<Integer> starts = new ArrayList<>();
+        for (Map.Entry<StringMatch, StringInsert> entry : sorted) {
+            starts.add(entry.getKey().start);
+        }
+        assertEquals(List.of(0, 8), starts);
+    }
+
+    @Test
+    void matchesOutsideTheStringAreSkipped() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("", 11, 11), literal("end"));
+        matches.put(new StringMatch("", 20, 25), literal("past"));
+        matches.put(new StringMatch("", -3, -1), literal("before"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("hello world", result.getString());
+    }
+
+    @Test
+    void matchPastTheEndReplacesTheRest() {
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("world", 6, 40), literal("!"));
+        StyledString result = TextUtil.replaceStrings(twoRuns(), matches);
+        assertEquals("hello !", result.getString());
+    }
+
+    @Test
+    void treeInputIsFlattened() {
+        Text input = Text.literal("hello ").setStyle(RED).append(Text.literal("world").setStyle(BLUE));
+        Map<StringMatch, StringInsert> matches = new HashMap<>();
+        matches.put(new StringMatch("hello", 0, 5), literal("bye"));
+        Text result = TextUtil.replaceStrings(input, matches);
+        assertEquals("bye world", result.getString());
+        StyledString styled = StyledString.of(result);
+        assertEquals(RED, styled.getStyleAt(0));
+        assertEquals(BLUE, styled.getStyleAt(4));
+    }
+
+    @Test
+    void boundedEditDistanceWithinMax() {
+        assertEquals(0, TextUtil.editDistance("hello", "hello", 3));
+        assertEquals(1, TextUtil.editDistance("hello", "hallo", 3));
+        assertEquals(1, TextUtil.editDistance("hello", "hello!", 3));
+        assertEquals(3, TextUtil.editDistance("kitten", "sitting", 3));
+        assertEquals(3, TextUtil.editDistance("", "abc", 3));
+    }
+
+    @Test
+    void boundedEditDistanceGivesUpPastMax() {
+        assertEquals(3, TextUtil.editDistance("kitten", "sitting", 2));
+        assertEquals(1, TextUtil.editDistance("abc", "xyz", 0));
+        // Length difference alone is over the max
+        assertEquals(3, TextUtil.editDistance("a", "abcdef", 2));
+    }
+
+    @Test
+    void boundedEditDistanceIgnoresCase() {
+        assertEquals(0, TextUtil.editDistance("Hello World", "hello world", 2));
+        assertEquals(TextUtil.editDistance("Hello", "hallo"), TextUtil.editDistance("Hello", "hallo", 5));
+    }
+
+    @Test
+    void boundedEditDistanceMatchesFullEditDistance() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String first = randomString(random);
+            String second = randomString(random);
+            int max = random.nextInt(6);
+            int full = TextUtil.editDistance(first, second);
+            assertEquals(Math.min(full, max + 1), TextUtil.editDistance(first, second, max));
+        }
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = "abcAB".charAt(random.nextInt(5));
+        }
+        return new String(chars);
+    }
+}